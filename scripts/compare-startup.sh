@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Starts the application several times per configuration and prints the median time from JVM start until ready,
+# as logged by StartupTimer. Each run stops itself once ready (--startup.exit-when-ready=true); the database in
+# application.properties must be reachable. Build first with `mvn -Pcds package` and create target/app.jsa as
+# described in README.md, or the cds run is skipped.
+#   scripts/compare-startup.sh [runs]
+set -euo pipefail
+
+runs=${1:-5}
+jar=target/AccountingApp-0.0.1-SNAPSHOT.jar
+archive=target/app.jsa
+
+ready_ms() {
+    "$@" --startup.exit-when-ready=true 2>&1 | sed -nE 's/.*Ready ([0-9]+) ms after JVM start.*/\1/p'
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "n/a"; else print v[int((NR + 1) / 2)] }'
+}
+
+measure() {
+    local name=$1
+    shift
+    local times=()
+    for ((i = 1; i <= runs; i++)); do
+        times+=("$(ready_ms "$@")")
+    done
+    printf '%-10s median %6s ms   runs: %s\n' "$name" "$(printf '%s\n' "${times[@]}" | grep -E '^[0-9]+$' | median)" "${times[*]}"
+}
+
+measure default java -jar "$jar"
+measure prod java -jar "$jar" --spring.profiles.active=prod
+if [[ -f $archive ]]; then
+    measure prod+cds java -XX:SharedArchiveFile="$archive" -jar "$jar" --spring.profiles.active=prod
+else
+    echo "prod+cds   skipped, $archive not found"
+fi
@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Counts the local stylesheets and scripts the shared layout (page_head and page_footer in fragments.html) makes a page
+# request, and the bytes sent for them to a browser that accepts gzip (the .gz sibling when the build wrote one).
+# Run after `mvn process-resources`, so the bundles and .gz files exist:
+#   scripts/static-asset-weight.sh src/main/resources/templates/fragments.html target/classes/static
+# For the numbers of an older layout, pass its fragments.html: git show <rev>:src/main/resources/templates/fragments.html
+set -euo pipefail
+
+fragments=$1
+static=$2
+
+requests=0 missing=0 raw=0 sent=0
+for path in $(awk '/th:fragment="page_head"/,/<\/head>/; /th:fragment="page_footer"/,/<\/footer>/' "$fragments" \
+        | grep -E '^\s*<(link|script)' \
+        | grep -oE '(href|src)="[^"]+"' \
+        | sed -E 's/^(href|src)="//; s/"$//; s/^@\{//; s/\}$//; s/\?.*$//' \
+        | grep -vE '^(https?:|//)' \
+        | grep -E '\.(css|js|php|png|ico)$'); do
+    requests=$((requests + 1))
+    file=$static/${path#/}
+    if [[ $path == ../* || ! -f $file ]]; then
+        missing=$((missing + 1))
+        continue
+    fi
+    size=$(wc -c < "$file")
+    raw=$((raw + size))
+    if [[ -f $file.gz ]]; then
+        sent=$((sent + $(wc -c < "$file.gz")))
+    else
+        sent=$((sent + size))
+    fi
+done
+
+echo "requests=$requests not_found=$missing raw_bytes=$raw sent_bytes=$sent"
@@ -5,12 +5,17 @@ import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import javax.annotation.PostConstruct;
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
+//stays eager with spring.main.lazy-initialization (prod profile): the Stripe key must be set before the first Stripe call
+@Lazy(false)
 public class MyAccountingAppMehmet {
     @Value("${stripe.api.key}")
     private String stripeApiKey;
@@ -0,0 +1,86 @@
+package com.example.accountingapp.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+//Size-bounded LRU cache for reference data DTOs. Callers get their own copy of each value, so binding a form
+//onto a DTO cannot change what the next request sees; the owning service invalidates entries whenever it writes
+//the underlying rows.
+public class ReferenceCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, V> entries;
+    //bumped by every invalidation, so a load that overlapped one is returned but not cached
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    ReferenceCache(String name, int maxEntries, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                boolean evict = size() > ReferenceCache.this.maxEntries;
+                if (evict) evictions++;
+                return evict;
+            }
+        };
+    }
+
+    //the loader runs outside the lock, so two threads missing the same key may both load it
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return copier.apply(value);
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        V loaded = loader.apply(key);
+        if (loaded == null) {
+            return null;
+        }
+        synchronized (this) {
+            if (generation == loadGeneration) {
+                entries.put(key, loaded);
+            }
+        }
+        return copier.apply(loaded);
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long requests = hits + misses;
+        stats.put("size", entries.size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hits / requests);
+        return stats;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.accountingapp.cache;
+
+import com.example.accountingapp.dto.CategoryDTO;
+import com.example.accountingapp.dto.ClientVendorDTO;
+import com.example.accountingapp.dto.CompanyDTO;
+import com.example.accountingapp.dto.PaymentDTO;
+import com.example.accountingapp.dto.RoleDTO;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+//Copy functions for the DTOs held in reference caches. Field-by-field rather than reflective, since they run
+//on every cache hit.
+public final class ReferenceCopies {
+
+    private ReferenceCopies() {
+    }
+
+    public static CompanyDTO company(CompanyDTO c) {
+        return c == null ? null : new CompanyDTO(c.getId(), c.getTitle(), c.getAddress1(), c.getAddress2(), c.getZip(),
+                c.getRepresentative(), c.getEmail(), c.getEstablishmentDate(), c.getEnabled(), c.getPhone(),
+                c.getState(), c.getCompanyStatus());
+    }
+
+    public static ClientVendorDTO clientVendor(ClientVendorDTO c) {
+        return new ClientVendorDTO(c.getId(), c.getCompanyName(), c.getEmail(), c.getStateId(), c.getPhone(),
+                c.getAddress(), c.getZipCode(), c.getType(), c.isEnabled());
+    }
+
+    public static RoleDTO role(RoleDTO r) {
+        return new RoleDTO(r.getId(), r.getName(), r.getEnabled());
+    }
+
+    public static CategoryDTO category(CategoryDTO c) {
+        return new CategoryDTO(c.getId(), c.getDescription(), c.isEnabled());
+    }
+
+    public static PaymentDTO payment(PaymentDTO p) {
+        return new PaymentDTO(p.getId(), p.getPaymentDate(), p.getYear(), p.getMonth(), p.getStatus(), p.getAmount(),
+                p.getIsPaid(), company(p.getCompanyDTO()), p.getPreparedBy());
+    }
+
+    public static <T> UnaryOperator<List<T>> listOf(UnaryOperator<T> elementCopier) {
+        return list -> list.stream().map(elementCopier).collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.accountingapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+//Creates the reference data caches (companies, categories, roles, clients/vendors) and reports their hit rates.
+@Component
+public class ReferenceDataCaches {
+
+    private final int maxEntries;
+    private final Map<String, ReferenceCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    public ReferenceDataCaches(@Value("${reference-cache.max-entries:500}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public <K, V> ReferenceCache<K, V> create(String name, UnaryOperator<V> copier) {
+        ReferenceCache<K, V> cache = new ReferenceCache<>(name, maxEntries, copier);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    public Map<String, Map<String, Object>> stats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        caches.values().stream()
+                .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                .forEach(cache -> stats.put(cache.getName(), cache.stats()));
+        return stats;
+    }
+}
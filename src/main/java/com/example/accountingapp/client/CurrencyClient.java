@@ -6,7 +6,7 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 
 
-@FeignClient(url = "https://www.frankfurter.app/",name="CURRENCY-CLIENT")
+@FeignClient(url = "${currency.client.url:https://www.frankfurter.app/}",name="CURRENCY-CLIENT")
 public interface CurrencyClient {
 
     @GetMapping("/latest")
@@ -0,0 +1,30 @@
+package com.example.accountingapp.config;
+
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class DashboardExecutorConfig {
+
+    //bounded pool and queue: when it is saturated a section is rejected and serves its fallback,
+    //running it on the request thread would take away its timeout exactly when the pool is overloaded
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(@Value("${dashboard.executor.pool-size:8}") int poolSize,
+                                                    @Value("${dashboard.executor.queue-capacity:100}") int queueCapacity,
+                                                    TenantContextHolder tenantContextHolder) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        //sections run with the tenant of the request that submitted them
+        executor.setTaskDecorator(tenantContextHolder::propagate);
+        return executor;
+    }
+}
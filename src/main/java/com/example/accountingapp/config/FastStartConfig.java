@@ -0,0 +1,20 @@
+package com.example.accountingapp.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+//With spring.main.lazy-initialization=true (prod profile) beans are created on first use.
+//Migrations and Hibernate's schema validation still run during startup: a wrong schema should stop the boot,
+//not fail the first request. Scheduled beans are kept eager by Spring Boot itself.
+@Configuration
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistence() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class, EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.accountingapp.config;
+
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class InvoiceImportExecutorConfig {
+
+    //one writer thread per running import and no queue: an import beyond max-concurrent is turned away
+    //instead of holding a request thread and its upload until a writer frees up
+    @Bean
+    public ThreadPoolTaskExecutor invoiceImportExecutor(@Value("${invoice-import.max-concurrent:2}") int maxConcurrent,
+                                                        TenantContextHolder tenantContextHolder) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("invoice-import-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(tenantContextHolder::isolate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.accountingapp.config;
+
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+//The ledger of the seed data is filled by migration V4; invoice_product rows written outside InvoiceService need a rebuild.
+//Run with --ledger.rebuild-on-startup=true / --ledger.check-on-startup=true to rebuild or verify on demand.
+@Component
+public class LedgerStartupRunner implements ApplicationRunner {
+
+    private final Logger logger = LoggerFactory.getLogger(LedgerStartupRunner.class);
+
+    private final ProfitLossLedgerService profitLossLedgerService;
+
+    @Value("${ledger.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${ledger.check-on-startup:false}")
+    private boolean checkOnStartup;
+
+    public LedgerStartupRunner(ProfitLossLedgerService profitLossLedgerService) {
+        this.profitLossLedgerService = profitLossLedgerService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup) {
+            long start = System.currentTimeMillis();
+            profitLossLedgerService.rebuild();
+            logger.info("Profit/loss ledger rebuilt in {} ms", System.currentTimeMillis() - start);
+        }
+        if (checkOnStartup) {
+            List<String> mismatches = profitLossLedgerService.checkConsistency();
+            if (mismatches.isEmpty()) {
+                logger.info("Profit/loss ledger is consistent with invoice_product");
+            } else {
+                mismatches.forEach(mismatch -> logger.warn("Profit/loss ledger mismatch: {}", mismatch));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.accountingapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Logs the time from JVM start until the application is ready and until the first request has been answered,
+//the numbers to compare when tuning startup (lazy initialization, class-data-sharing archive).
+//With --startup.exit-when-ready=true the application stops once it is ready: the training run for the CDS archive.
+@Component
+public class StartupTimer extends OncePerRequestFilter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final Logger logger = LoggerFactory.getLogger(StartupTimer.class);
+
+    private final AtomicBoolean firstRequestPending = new AtomicBoolean(true);
+
+    @Value("${startup.exit-when-ready:false}")
+    private boolean exitWhenReady;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        logger.info("Ready {} ms after JVM start", sinceJvmStart());
+        if (exitWhenReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (firstRequestPending.get() && firstRequestPending.compareAndSet(true, false)) {
+            logger.info("First request ({}) answered {} ms after JVM start", request.getRequestURI(), sinceJvmStart());
+        }
+    }
+
+    private long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.accountingapp.config;
+
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class StripeEventExecutorConfig {
+
+    //bounded pool and queue: when it is saturated the event is left in the inbox and the next sweep hands it out again,
+    //so a burst of webhooks never blocks the request threads
+    @Bean
+    public ThreadPoolTaskExecutor stripeEventExecutor(@Value("${stripe.events.pool-size:4}") int poolSize,
+                                                      @Value("${stripe.events.queue-capacity:200}") int queueCapacity,
+                                                      TenantContextHolder tenantContextHolder) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("stripe-event-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(tenantContextHolder::isolate);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.accountingapp.config;
+
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.boot.task.TaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class TaskSchedulerConfig {
+
+    //the scheduler Boot would build from spring.task.scheduling.*, except that its threads drop the tenant after
+    //every run; afterExecute is called from the pool's own finally block, also when the job throws
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(TaskSchedulerBuilder builder, TenantContextHolder tenantContextHolder) {
+        return builder.configure(new ThreadPoolTaskScheduler() {
+            @Override
+            protected ScheduledExecutorService createExecutor(int poolSize, ThreadFactory threadFactory,
+                                                              RejectedExecutionHandler rejectedExecutionHandler) {
+                return new ScheduledThreadPoolExecutor(poolSize, threadFactory, rejectedExecutionHandler) {
+                    @Override
+                    protected void afterExecute(Runnable task, Throwable failure) {
+                        tenantContextHolder.clear();
+                    }
+                };
+            }
+        });
+    }
+}
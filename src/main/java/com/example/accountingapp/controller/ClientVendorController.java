@@ -2,6 +2,8 @@ package com.example.accountingapp.controller;
 
 import com.example.accountingapp.dto.ClientVendorDTO;
 import com.example.accountingapp.service.ClientVendorService;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -35,8 +37,10 @@ public class ClientVendorController {
     }
 
     @GetMapping("/list")
-    public String clientList(Model model) {
-        model.addAttribute("clients", clientVendorService.listAllClients());
+    public String clientList(KeysetRequest pageRequest, Model model) {
+        KeysetPage<ClientVendorDTO> page = clientVendorService.listClientsPage(pageRequest);
+        model.addAttribute("clients", page.getContent());
+        model.addAttribute("page", page);
         return "/clientvendor/client-vendor-list";
     }
 
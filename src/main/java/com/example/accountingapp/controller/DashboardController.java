@@ -1,12 +1,31 @@
 package com.example.accountingapp.controller;
 
-import com.example.accountingapp.client.CurrencyClient;
+import com.example.accountingapp.cache.ReferenceDataCaches;
+import com.example.accountingapp.dto.InvoiceDTO;
+import com.example.accountingapp.dto.client.Latest;
+import com.example.accountingapp.dto.client.RatesTable;
+import com.example.accountingapp.service.CurrencyRateService;
 import com.example.accountingapp.service.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Controller
 @RequestMapping(
@@ -14,21 +33,100 @@ import org.springframework.web.bind.annotation.RequestMethod;
 )
 public class DashboardController {
 
+    private final Logger logger = LoggerFactory.getLogger(DashboardController.class);
+
     private final ReportService reportService;
-    private final CurrencyClient currencyClient;
+    private final CurrencyRateService currencyRateService;
+    private final ThreadPoolTaskExecutor dashboardExecutor;
+    private final ReferenceDataCaches referenceDataCaches;
 
-    public DashboardController(ReportService reportService, CurrencyClient currencyClient) {
+    @Value("${dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMillis;
+
+    public DashboardController(ReportService reportService, CurrencyRateService currencyRateService, @Qualifier("dashboardExecutor") ThreadPoolTaskExecutor dashboardExecutor, ReferenceDataCaches referenceDataCaches) {
         this.reportService = reportService;
-        this.currencyClient = currencyClient;
+        this.currencyRateService = currencyRateService;
+        this.dashboardExecutor = dashboardExecutor;
+        this.referenceDataCaches = referenceDataCaches;
     }
 
     @GetMapping("/dashboard")
     public String getDashboard(Model model){
-        model.addAttribute("profitLoss", reportService.profitLoss());
-        model.addAttribute("last3Invoices", reportService.findLast3ByCompany());
-        model.addAttribute("rates", currencyClient.getCurrency());
+        //sections load concurrently; a slow or failing one falls back on its own panel only
+        LocalDate today = LocalDate.now();
+        CompletableFuture<Map<String, BigDecimal>> profitLoss = section("profitLoss", reportService::profitLoss, emptyProfitLoss());
+        CompletableFuture<Map<String, BigDecimal>> monthToDate = section("monthToDate", () -> reportService.profitLoss(today.withDayOfMonth(1), today), emptyProfitLoss());
+        CompletableFuture<Map<String, BigDecimal>> yearToDate = section("yearToDate", () -> reportService.profitLoss(today.withDayOfYear(1), today), emptyProfitLoss());
+        CompletableFuture<List<InvoiceDTO>> last3Invoices = section("last3Invoices", reportService::findLast3ByCompany, new ArrayList<>());
+        CompletableFuture<Latest> rates = section("rates", currencyRateService::getLatest, emptyRates());
+
+        model.addAttribute("profitLoss", profitLoss.join());
+        model.addAttribute("profitLossMonthToDate", monthToDate.join());
+        model.addAttribute("profitLossYearToDate", yearToDate.join());
+        model.addAttribute("last3Invoices", last3Invoices.join());
+        model.addAttribute("rates", rates.join());
 
 
         return "dashboard";
     }
+
+    @GetMapping("/dashboard/rates/stats")
+    @ResponseBody
+    public Map<String, Object> getRatesStats(){
+        return currencyRateService.getStats();
+    }
+
+    @GetMapping("/dashboard/reference-cache/stats")
+    @ResponseBody
+    public Map<String, Map<String, Object>> getReferenceCacheStats(){
+        return referenceDataCaches.stats();
+    }
+
+    //a section that is rejected by the busy pool, fails or runs past the timeout serves its fallback;
+    //a timed-out section is cancelled, so it does not keep a worker from the next request's sections
+    private <T> CompletableFuture<T> section(String name, Supplier<T> supplier, T fallback) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = dashboardExecutor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    result.complete(supplier.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (elapsedMillis > sectionTimeoutMillis) {
+                        logger.warn("Dashboard section {} took {} ms, fallback was served", name, elapsedMillis);
+                    } else {
+                        logger.debug("Dashboard section {} took {} ms", name, elapsedMillis);
+                    }
+                }
+            });
+        } catch (TaskRejectedException e) {
+            logger.warn("Dashboard workers are busy, section {} serves its fallback", name);
+            return CompletableFuture.completedFuture(fallback);
+        }
+        return result
+                .completeOnTimeout(fallback, sectionTimeoutMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((value, e) -> task.cancel(true))
+                .exceptionally(e -> {
+                    logger.warn("Dashboard section {} failed, serving fallback: {}", name, e.getMessage());
+                    return fallback;
+                });
+    }
+
+    private Map<String, BigDecimal> emptyProfitLoss() {
+        Map<String, BigDecimal> profitLoss = new HashMap<>();
+        profitLoss.put("totalCost", BigDecimal.ZERO);
+        profitLoss.put("totalSale", BigDecimal.ZERO);
+        profitLoss.put("totalTax", BigDecimal.ZERO);
+        return profitLoss;
+    }
+
+    private Latest emptyRates() {
+        Latest latest = new Latest();
+        latest.setRates(new RatesTable());
+        return latest;
+    }
 }
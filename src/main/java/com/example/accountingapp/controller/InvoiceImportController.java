@@ -0,0 +1,39 @@
+package com.example.accountingapp.controller;
+
+import com.example.accountingapp.dto.InvoiceImportReport;
+import com.example.accountingapp.imports.ImportFormat;
+import com.example.accountingapp.service.InvoiceImportService;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+//Bulk import of historical invoices for the current company, e.g.
+//curl --data-binary @invoices.csv -H "Content-Type: text/csv" http://localhost:8084/invoice/import
+//The body is read while it is being written to the database, it is never buffered as a whole.
+@RestController
+public class InvoiceImportController {
+
+    private final InvoiceImportService invoiceImportService;
+
+    public InvoiceImportController(InvoiceImportService invoiceImportService) {
+        this.invoiceImportService = invoiceImportService;
+    }
+
+    @PostMapping("/invoice/import")
+    public ResponseEntity<InvoiceImportReport> importInvoices(@RequestParam(required = false) String format, HttpServletRequest request) throws IOException {
+        InvoiceImportReport report;
+        try {
+            report = invoiceImportService.importInvoices(ImportFormat.of(format, request.getContentType()), request.getInputStream());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "60").build();
+        }
+        return report.getAbortedBecause() == null ? ResponseEntity.ok(report) : ResponseEntity.badRequest().body(report);
+    }
+}
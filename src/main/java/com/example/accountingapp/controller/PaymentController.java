@@ -28,7 +28,7 @@ public class PaymentController {
   }
 
   @GetMapping("/list")
-  public String selectPaymentYear(Model model, @RequestParam(defaultValue = "2022") String year) {
+  public String selectPaymentYear(Model model, @RequestParam(defaultValue = "2022") Integer year) {
     String[] month = new DateFormatSymbols().getMonths();
     model.addAttribute("localDateTime", LocalDateTime.now());
     model.addAttribute("year", year);
@@ -7,28 +7,45 @@ import com.example.accountingapp.enums.Unit;
 import com.example.accountingapp.service.CategoryService;
 import com.example.accountingapp.service.ClientVendorService;
 import com.example.accountingapp.service.ProductService;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.validation.Valid;
 
+import java.util.List;
+
 @Controller
 @RequestMapping("/product")
 public class ProductController {
 
+    private static final List<ProductStatus> STATUSES = List.of(ProductStatus.values());
+    private static final List<Unit> UNITS = List.of(Unit.values());
+
     private final ProductService productService;
     private final CategoryService categoryService;
+    private final ResourceVersions resourceVersions;
 
-    public ProductController(ProductService productService, CategoryService categoryService) {
+    public ProductController(ProductService productService, CategoryService categoryService, ResourceVersions resourceVersions) {
         this.productService = productService;
         this.categoryService = categoryService;
+        this.resourceVersions = resourceVersions;
     }
 
     @GetMapping("/list")
-    public String productList(Model model) {
-        model.addAttribute("products", productService.listAllProducts());
+    public String productList(KeysetRequest pageRequest, ServletWebRequest webRequest, Model model) {
+        if (resourceVersions.checkNotModified(webRequest, VersionedResource.PRODUCTS, VersionedResource.CATEGORIES)) {
+            return null;
+        }
+        KeysetPage<ProductDTO> page = productService.listProductsPage(pageRequest);
+        model.addAttribute("products", page.getContent());
+        model.addAttribute("page", page);
         return "/product/product-list";
     }
 
@@ -36,8 +53,8 @@ public class ProductController {
     public String addProduct(Model model) {
         model.addAttribute("product", new ProductDTO());
         model.addAttribute("categories", categoryService.listAllCategories());
-        model.addAttribute("statuses", ProductStatus.values());
-        model.addAttribute("units", Unit.values());
+        model.addAttribute("statuses", STATUSES);
+        model.addAttribute("units", UNITS);
         return "/product/product-add";
     }
 
@@ -45,8 +62,8 @@ public class ProductController {
     public String addProduct(@Valid @ModelAttribute("product") ProductDTO product, BindingResult bindingResult, Model model) {
         if (bindingResult.hasErrors()) {
             model.addAttribute("categories", categoryService.listAllCategories());
-            model.addAttribute("statuses", ProductStatus.values());
-            model.addAttribute("units", Unit.values());
+            model.addAttribute("statuses", STATUSES);
+            model.addAttribute("units", UNITS);
             return "/product/product-add";
         }
         productService.save(product);
@@ -57,8 +74,8 @@ public class ProductController {
     public String editProduct(@PathVariable("id") Long id, Model model) {
         model.addAttribute("product", productService.findById(id));
         model.addAttribute("categories", categoryService.listAllCategories());
-        model.addAttribute("statuses", ProductStatus.values());
-        model.addAttribute("units", Unit.values());
+        model.addAttribute("statuses", STATUSES);
+        model.addAttribute("units", UNITS);
         return "/product/product-edit";
     }
 
@@ -66,8 +83,8 @@ public class ProductController {
     public String editProduct(@PathVariable("id") Long id, @Valid @ModelAttribute("product") ProductDTO productDTO, BindingResult bindingResult,Model model) {
         if (bindingResult.hasErrors()) {
             model.addAttribute("categories", categoryService.listAllCategories());
-            model.addAttribute("statuses", ProductStatus.values());
-            model.addAttribute("units", Unit.values());
+            model.addAttribute("statuses", STATUSES);
+            model.addAttribute("units", UNITS);
             return "/product/product-edit";
         }
         productDTO.setId(id);
@@ -8,9 +8,14 @@ import com.example.accountingapp.service.ClientVendorService;
 import com.example.accountingapp.service.InvoiceProductService;
 import com.example.accountingapp.service.InvoiceService;
 import com.example.accountingapp.service.ProductService;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @Controller
 @RequestMapping("/invoice")
@@ -20,18 +25,26 @@ public class PurchaseInvoiceController {
     final private ClientVendorService clientVendorService;
     final private InvoiceProductService invoiceProductService;
     final private ProductService productService;
+    final private ResourceVersions resourceVersions;
 
     public PurchaseInvoiceController(InvoiceService invoiceService, ClientVendorService clientVendorService,
-                                     InvoiceProductService invoiceProductService, ProductService productService) {
+                                     InvoiceProductService invoiceProductService, ProductService productService,
+                                     ResourceVersions resourceVersions) {
         this.invoiceService = invoiceService;
         this.clientVendorService = clientVendorService;
         this.invoiceProductService = invoiceProductService;
         this.productService = productService;
+        this.resourceVersions = resourceVersions;
     }
 
     @GetMapping("/purchaseInvoiceList")
-    public String purchaseInvoiceList(Model model) {
-        model.addAttribute("purchaseInvoices", invoiceService.listAllByInvoiceType(InvoiceType.PURCHASE));
+    public String purchaseInvoiceList(KeysetRequest pageRequest, ServletWebRequest webRequest, Model model) {
+        if (resourceVersions.checkNotModified(webRequest, VersionedResource.INVOICES, VersionedResource.CLIENT_VENDORS)) {
+            return null;
+        }
+        KeysetPage<InvoiceDTO> page = invoiceService.listPageByInvoiceType(InvoiceType.PURCHASE, pageRequest);
+        model.addAttribute("purchaseInvoices", page.getContent());
+        model.addAttribute("page", page);
         return "invoice/purchase-invoice-list";
     }
 
@@ -84,7 +97,7 @@ public class PurchaseInvoiceController {
         model.addAttribute("invoiceDTO", invoiceDTO);
         model.addAttribute("companyName", invoiceDTO.getClientVendor().getCompanyName());
         model.addAttribute("date", invoiceService.getLocalDate());
-        model.addAttribute("invoiceId", invoiceService.getNextInvoiceIdPurchase());
+        model.addAttribute("invoiceId", invoiceDTO.getInvoiceNumber());
         model.addAttribute("invoiceProductDTO", new InvoiceProductDTO());
         model.addAttribute("products", invoiceProductService.findAllProductsByCompanyName(invoiceDTO.getClientVendor().getCompanyName()));
         model.addAttribute("invoiceProducts", invoiceProductService.findAllInvoiceProductsByInvoiceId(id));
@@ -123,8 +136,8 @@ public class PurchaseInvoiceController {
 
     @PostMapping ("/approvePurchaseInvoice/{id}")
     public String approvePurchaseInvoiceById(@PathVariable("id") Long id){
+        //a repeated POST for an approved invoice changes nothing
         invoiceService.approvePurchaseInvoice(id);
-        invoiceService.addProductToStockByInvoice(id);
         return "redirect:/invoice/purchaseInvoiceList";
     }
 
@@ -1,13 +1,28 @@
 package com.example.accountingapp.controller;
 
+import com.example.accountingapp.export.ExportFormat;
+import com.example.accountingapp.pdf.PdfDownloads;
+import com.example.accountingapp.pdf.PdfFileCache;
 import com.example.accountingapp.service.InvoiceProductService;
+import com.example.accountingapp.service.PdfExportService;
+import com.example.accountingapp.service.ReportExportService;
 import com.example.accountingapp.service.ReportService;
 import com.example.accountingapp.service.UserService;
 import com.example.accountingapp.service.impl.ReportServiceImpl;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/report")
@@ -18,27 +33,55 @@ public class ReportController {
 
     private final ReportService reportService;
     private final UserService userService;
+    private final ReportExportService reportExportService;
+    private final PdfExportService pdfExportService;
+    private final PdfFileCache pdfFileCache;
+    private final ResourceVersions resourceVersions;
 
-    public ReportController(ReportService reportService, UserService userService) {
+    public ReportController(ReportService reportService, UserService userService, ReportExportService reportExportService, PdfExportService pdfExportService, PdfFileCache pdfFileCache, ResourceVersions resourceVersions) {
         this.reportService = reportService;
         this.userService = userService;
+        this.reportExportService = reportExportService;
+        this.pdfExportService = pdfExportService;
+        this.pdfFileCache = pdfFileCache;
+        this.resourceVersions = resourceVersions;
     }
 
     @GetMapping("/stock")
-    public String stockReport(Model model){
+    public String stockReport(ServletWebRequest webRequest, Model model){
+        if (resourceVersions.checkNotModified(webRequest, VersionedResource.INVOICES, VersionedResource.PRODUCTS)) {
+            return null;
+        }
         model.addAttribute("invoiceProduct", reportService.findAllByCompany());
         return "/report/stock-report";
     }
 
+    @GetMapping("/stock/download")
+    public void downloadStockReport(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepareDownload(response, exportFormat, "stock-report");
+        reportExportService.exportStock(exportFormat, response.getOutputStream());
+    }
+
 
     @GetMapping("/profit")
-    public String profitLossReport(Model model){
+    public String profitLossReport(ServletWebRequest webRequest, Model model){
+        if (resourceVersions.checkNotModified(webRequest, VersionedResource.INVOICES, VersionedResource.PRODUCTS)) {
+            return null;
+        }
         model.addAttribute("profitLoss", reportService.profitLoss());
         model.addAttribute("productsTotal", reportService.calculateByProducts());
 
         return "/report/profit-loss-report";
     }
 
+    @GetMapping("/profit/download")
+    public void downloadProfitLossReport(@RequestParam(defaultValue = "csv") String format, HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        prepareDownload(response, exportFormat, "profit-loss-report");
+        reportExportService.exportProfitLoss(exportFormat, response.getOutputStream());
+    }
+
     @GetMapping("/export")
     public String exportPDFButton(Model model){
         model.addAttribute("profitLoss", reportService.profitLoss());
@@ -48,4 +91,21 @@ public class ReportController {
         return "/report/export-pdf-button";
     }
 
+    @GetMapping("/export/pdf")
+    public void exportPdf(HttpServletResponse response) throws IOException {
+        PdfDownloads.prepare(response, "profit-loss-report.pdf");
+        pdfExportService.writeReportPdf(response.getOutputStream());
+    }
+
+    @GetMapping("/pdf-cache/stats")
+    @ResponseBody
+    public Map<String, Object> pdfCacheStats() {
+        return pdfFileCache.stats();
+    }
+
+    private void prepareDownload(HttpServletResponse response, ExportFormat format, String baseName) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + format.fileName(baseName) + "\"");
+    }
+
 }
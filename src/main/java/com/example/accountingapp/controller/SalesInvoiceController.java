@@ -4,21 +4,26 @@ import com.example.accountingapp.dto.InvoiceDTO;
 
 import com.example.accountingapp.dto.InvoiceProductDTO;
 import com.example.accountingapp.dto.ProductDTO;
-import com.example.accountingapp.dto.StockDetailsDTO;
 import com.example.accountingapp.enums.CompanyType;
 import com.example.accountingapp.enums.InvoiceType;
-import com.example.accountingapp.enums.ProductStatus;
+import com.example.accountingapp.pdf.PdfDownloads;
 import com.example.accountingapp.service.*;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.math.BigInteger;
-import java.util.Comparator;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Controller
@@ -30,21 +35,28 @@ public class SalesInvoiceController {
     private final InvoiceProductService invoiceProductService;
     private final ClientVendorService clientVendorService;
     private final ProductService productService;
-    private final StockDetailsService stockDetailsService;
+    private final PdfExportService pdfExportService;
+    private final ResourceVersions resourceVersions;
 
-    public SalesInvoiceController(InvoiceService invoiceService, CompanyService companyService, InvoiceProductService invoiceProductService, ClientVendorService clientVendorService, ProductService productService, StockDetailsService stockDetailsService) {
+    public SalesInvoiceController(InvoiceService invoiceService, CompanyService companyService, InvoiceProductService invoiceProductService, ClientVendorService clientVendorService, ProductService productService, PdfExportService pdfExportService, ResourceVersions resourceVersions) {
         this.invoiceService = invoiceService;
         this.companyService = companyService;
         this.invoiceProductService = invoiceProductService;
         this.clientVendorService = clientVendorService;
         this.productService = productService;
-        this.stockDetailsService = stockDetailsService;
+        this.pdfExportService = pdfExportService;
+        this.resourceVersions = resourceVersions;
     }
 
 
     @GetMapping("/salesInvoiceList")
-    public String salesInvoiceList(Model model) {
-        model.addAttribute("salesInvoices", invoiceService.listAllByInvoiceType(InvoiceType.SALE));
+    public String salesInvoiceList(KeysetRequest pageRequest, ServletWebRequest webRequest, Model model) {
+        if (resourceVersions.checkNotModified(webRequest, VersionedResource.INVOICES, VersionedResource.CLIENT_VENDORS)) {
+            return null;
+        }
+        KeysetPage<InvoiceDTO> page = invoiceService.listPageByInvoiceType(InvoiceType.SALE, pageRequest);
+        model.addAttribute("salesInvoices", page.getContent());
+        model.addAttribute("page", page);
         model.addAttribute("clients", clientVendorService.findAllByCompanyType(CompanyType.CLIENT));
         return "/invoice/sales-invoice-list";
     }
@@ -80,52 +92,26 @@ public class SalesInvoiceController {
         return "/invoice/toInvoice";
     }
 
+    @GetMapping("/pdf/{id}")
+    public void invoicePdf(@PathVariable("id") Long id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String fileName = "invoice-" + id + ".pdf";
+        Path cached = pdfExportService.findApprovedInvoicePdf(id);
+        if (cached != null) {
+            PdfDownloads.send(cached, fileName, request, response);
+            return;
+        }
+        PdfDownloads.prepare(response, fileName);
+        pdfExportService.writeInvoicePdf(id, response.getOutputStream());
+    }
+
     @PostMapping("/approve/{id}")
     public String approve(@PathVariable("id") String id, Model model) {
 
         model.addAttribute("salesInvoices", invoiceService.listAllByInvoiceType(InvoiceType.SALE));
         model.addAttribute("clients", clientVendorService.findAllByCompanyType(CompanyType.CLIENT));
-        Long invoiceId = invoiceService.getInvoiceNo(id);
-        List<InvoiceProductDTO> invoiceProducts = invoiceProductService.getByInvoiceId(invoiceId);
-
-
-        for (InvoiceProductDTO invoiceProduct : invoiceProducts) {
-
-            List<StockDetailsDTO> stocks = stockDetailsService.getByProductId(invoiceProduct.getProductId());
-            List<StockDetailsDTO> sortedList = stocks.stream()
-                    .sorted(Comparator.comparing(StockDetailsDTO :: getIDate))
-                    .collect(Collectors.toList());
-            ProductDTO product = productService.findById(invoiceProduct.getProductId());
-
-            if (product.getProductStatus() == ProductStatus.ACTIVE && product.getQty().intValue() >= invoiceProduct.getQty()) {
-                BigInteger leftOverQty = BigInteger.valueOf(product.getQty().intValue() - invoiceProduct.getQty());
-                product.setQty(leftOverQty);
-                productService.updateProduct(product);
-                invoiceService.approveInvoice(id);
-                int stocksToRemove = invoiceProduct.getQty();
-                for(StockDetailsDTO stockDetailsDTO : sortedList) {
-                    if (stocksToRemove > 0) {
-                        if(stockDetailsDTO.getRemainingQuantity().intValue()>stocksToRemove){
-                            long remaining = stockDetailsDTO.getRemainingQuantity().intValue()-stocksToRemove;
-                            stockDetailsDTO.setRemainingQuantity(new BigInteger(String.valueOf(remaining)));
-                            stockDetailsService.updateStockDetail(stockDetailsDTO);
-                            stocksToRemove = 0;
-                        } else{
-                            stocksToRemove = stocksToRemove-stockDetailsDTO.getRemainingQuantity().intValue();
-                            stockDetailsDTO.setRemainingQuantity(new BigInteger("0"));
-                            stockDetailsService.updateStockDetail(stockDetailsDTO);
-                        }
-                    }
-
-                }
-
-            } else {
-                return "invoice/message";
-            }
-
-
+        if (!invoiceService.approveSalesInvoice(id)) {
+            return "invoice/message";
         }
-
         return "redirect:/invoice/salesInvoiceList";
     }
 
@@ -157,7 +143,7 @@ public class SalesInvoiceController {
         model.addAttribute("invoiceDTO", invoiceDTO);
         model.addAttribute("companyName", invoiceDTO.getClientVendor().getCompanyName());
         model.addAttribute("date", invoiceService.getLocalDate());
-        model.addAttribute("invoiceId", invoiceService.getNextInvoiceIdSale());
+        model.addAttribute("invoiceId", invoiceDTO.getInvoiceNumber());
         model.addAttribute("invoiceProductDTO", new InvoiceProductDTO());
         model.addAttribute("products", productService.listAllProducts());
         model.addAttribute("invoiceProducts", invoiceProductService.findAllInvoiceProductsByInvoiceId(id));
@@ -14,10 +14,13 @@ public class StripeClientController {
     @PostMapping("/create-payment-intent")
     public CreatePaymentResponse createPaymentIntent(@RequestBody CreatePayment createPayment) throws StripeException {
 
-        PaymentIntentCreateParams createParams = new PaymentIntentCreateParams.Builder()
+        PaymentIntentCreateParams.Builder builder = new PaymentIntentCreateParams.Builder()
                 .setCurrency("usd")
-                .setAmount(250 * 100L)// createPayment ... what product does user want to buy ...how much does product cost
-                .build();
+                .setAmount(250 * 100L);// createPayment ... what product does user want to buy ...how much does product cost
+        if (createPayment.getPaymentId() != null) {
+            builder.putMetadata("payment_id", createPayment.getPaymentId().toString());
+        }
+        PaymentIntentCreateParams createParams = builder.build();
         //Create payment Intent with the order amount and currency
         PaymentIntent intent = PaymentIntent.create(createParams);
         return new CreatePaymentResponse(intent.getClientSecret());
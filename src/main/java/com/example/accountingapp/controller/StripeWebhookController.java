@@ -1,29 +1,38 @@
 package com.example.accountingapp.controller;
 
+import com.example.accountingapp.service.StripeEventService;
 import com.google.gson.JsonSyntaxException;
 import com.stripe.exception.SignatureVerificationException;
 import com.stripe.model.*;
-import com.stripe.net.ApiResource;
 import com.stripe.net.Webhook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
+//Only verifies and stores the event, StripeEventService handles it on its own workers.
+//The signature check is a local HMAC over the payload, no call to Stripe is made here.
 @RestController
 public class StripeWebhookController {
     private Logger logger = LoggerFactory.getLogger(StripeWebhookController.class);
     @Value("${stripe.webhook.secret}")
     private String endpointSecret;
-    @PostMapping("/stripe/events")
-    public String handleStripeEvent(@RequestBody String payload, @RequestHeader("Stripe-Signature") String sigHeader){
 
+    private final StripeEventService stripeEventService;
+
+    public StripeWebhookController(StripeEventService stripeEventService) {
+        this.stripeEventService = stripeEventService;
+    }
+
+    @PostMapping("/stripe/events")
+    public ResponseEntity<String> handleStripeEvent(@RequestBody String payload, @RequestHeader(value = "Stripe-Signature", required = false) String sigHeader){
 
             if(sigHeader == null){
-                return "";
+                return ResponseEntity.badRequest().body("");
             }
         Event event;
                 try {
@@ -34,34 +43,16 @@ public class StripeWebhookController {
                     // Invalid signature
                     logger.info("⚠️  Webhook error while validating signature.");
 
-                    return "";
-                }
+                    return ResponseEntity.badRequest().body("");
+                } catch (JsonSyntaxException e) {
+                    logger.info("⚠️  Webhook payload is not a Stripe event.");
 
-            // Deserialize the nested object inside the event
-            EventDataObjectDeserializer dataObjectDeserializer = event.getDataObjectDeserializer();
-            StripeObject stripeObject = null;
-            if (dataObjectDeserializer.getObject().isPresent()) {
-                stripeObject = dataObjectDeserializer.getObject().get();
-            } else {
-                // Deserialization failed, probably due to an API version mismatch.
-                // Refer to the Javadoc documentation on `EventDataObjectDeserializer` for
-                // instructions on how to handle this case, or return an error here.
-            }
-            // Handle the event
-            switch (event.getType()) {
-                case "payment_intent.succeeded":
-                    PaymentIntent paymentIntent = (PaymentIntent) stripeObject;
-                    logger.info("Payment {} succeeded.", paymentIntent.getAmount());
-                    // Then define and call a method to handle the successful payment intent.
-                    // handlePaymentIntentSucceeded(paymentIntent);
-                    break;
+                    return ResponseEntity.badRequest().body("");
+                }
 
-                default:
-                    logger.warn("Unhandled event type: {}", event.getType());
-                    break;
-            }
-            //response.status(200);
-            return "";
+            // A redelivered event is acknowledged again without being stored or handled twice
+            stripeEventService.receive(event.getId(), event.getType(), payload);
+            return ResponseEntity.ok("");
 
     }
 
@@ -6,6 +6,8 @@ import com.example.accountingapp.enums.UserStatus;
 import com.example.accountingapp.service.CompanyService;
 import com.example.accountingapp.service.RoleService;
 import com.example.accountingapp.service.UserService;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -28,12 +30,14 @@ public class UserController {
     }
 
     @GetMapping("/list")
-    public String listUser(Model model) {
+    public String listUser(KeysetRequest pageRequest, Model model) {
 
 
         model.addAttribute("roles", roleService.listAllRoles());
         model.addAttribute("companies", companyService.listAllCompanies());
-        model.addAttribute("users", userService.listAllUsers());
+        KeysetPage<UserDTO> page = userService.listUsersPage(pageRequest);
+        model.addAttribute("users", page.getContent());
+        model.addAttribute("page", page);
         model.addAttribute("UserStatus", UserStatus.values());
         return "/user/user-list";
     }
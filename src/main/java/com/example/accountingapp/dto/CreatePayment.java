@@ -7,7 +7,19 @@ public class CreatePayment {
   @SerializedName("items")
   Object[] items;
 
+  //the Payment row this intent pays; sent back in the payment_intent.succeeded webhook as metadata
+  @SerializedName("paymentId")
+  Long paymentId;
+
   public Object[] getItems() {
     return items;
   }
+
+  public Long getPaymentId() {
+    return paymentId;
+  }
+
+  public void setPaymentId(Long paymentId) {
+    this.paymentId = paymentId;
+  }
 }
@@ -0,0 +1,75 @@
+package com.example.accountingapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//Outcome of one invoice import. Filled by the reading and the writing thread at the same time, hence the synchronized methods.
+//An invoice with a bad line is rejected as a whole; only the first maxErrors problems are listed, errorCount counts them all.
+public class InvoiceImportReport {
+
+    private final int maxErrors;
+    private long invoicesImported;
+    private long linesImported;
+    private long invoicesRejected;
+    private long errorCount;
+    private String abortedBecause;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public InvoiceImportReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public synchronized void imported(int invoices, int lines) {
+        invoicesImported += invoices;
+        linesImported += lines;
+    }
+
+    public synchronized void rejected(List<RowError> invoiceErrors) {
+        invoicesRejected++;
+        errorCount += invoiceErrors.size();
+        for (RowError each : invoiceErrors) {
+            if (errors.size() == maxErrors) break;
+            errors.add(each);
+        }
+    }
+
+    public synchronized void aborted(String reason) {
+        abortedBecause = reason;
+    }
+
+    public synchronized long getInvoicesImported() {
+        return invoicesImported;
+    }
+
+    public synchronized long getLinesImported() {
+        return linesImported;
+    }
+
+    public synchronized long getInvoicesRejected() {
+        return invoicesRejected;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    //set when the input could not be read to the end; the invoices counted as imported are committed all the same
+    public synchronized String getAbortedBecause() {
+        return abortedBecause;
+    }
+
+    public synchronized List<RowError> getErrors() {
+        return new ArrayList<>(errors);
+    }
+
+    @AllArgsConstructor
+    @Getter
+    public static class RowError {
+        private int row;
+        private String invoiceNumber;
+        private String message;
+    }
+}
@@ -18,7 +18,7 @@ public class PaymentDTO {
     private Long id;
     @DateTimeFormat(pattern = "yyyy-MM-dd")
     private LocalDate paymentDate;
-    private String year;
+    private Integer year;
     private PaymentMonth month;
     private PaymentStatus status;
     private Integer amount;
@@ -3,18 +3,14 @@ package com.example.accountingapp.dto.client;
 
 import com.fasterxml.jackson.annotation.*;
 
-import javax.annotation.Generated;
-import java.util.HashMap;
-import java.util.Map;
-
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
 @JsonPropertyOrder({
     "amount",
     "base",
     "date",
     "rates"
 })
-@Generated("jsonschema2pojo")
 public class Latest {
 
     @JsonProperty("amount")
@@ -24,9 +20,7 @@ public class Latest {
     @JsonProperty("date")
     private String date;
     @JsonProperty("rates")
-    private Rates rates;
-    @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private RatesTable rates;
 
     @JsonProperty("amount")
     public Double getAmount() {
@@ -46,6 +40,7 @@ public class Latest {
     @JsonProperty("base")
     public void setBase(String base) {
         this.base = base;
+        linkBase();
     }
 
     @JsonProperty("date")
@@ -59,23 +54,21 @@ public class Latest {
     }
 
     @JsonProperty("rates")
-    public Rates getRates() {
+    public RatesTable getRates() {
         return rates;
     }
 
     @JsonProperty("rates")
-    public void setRates(Rates rates) {
+    public void setRates(RatesTable rates) {
         this.rates = rates;
+        linkBase();
     }
 
-    @JsonAnyGetter
-    public Map<String, Object> getAdditionalProperties() {
-        return this.additionalProperties;
-    }
-
-    @JsonAnySetter
-    public void setAdditionalProperty(String name, Object value) {
-        this.additionalProperties.put(name, value);
+    //the response lists rates against the base currency but not the base itself
+    private void linkBase() {
+        if (rates != null && base != null) {
+            rates.set(base, 1.0);
+        }
     }
 
 }
@@ -0,0 +1,113 @@
+package com.example.accountingapp.dto.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+//Exchange rates against the response base currency, for whatever currencies the response lists.
+//Each ISO code is packed into an int from its three letters; the packed codes are kept sorted next to a primitive
+//array of rates, so a lookup is a binary search over ints with no hashing or boxing involved.
+@JsonDeserialize(using = RatesTable.Deserializer.class)
+public class RatesTable {
+
+    private int[] slots = new int[0];
+    private double[] rates = new double[0];
+
+    private static int slot(String code) {
+        if (code == null || code.length() != 3) return -1;
+        int a = code.charAt(0) - 'A', b = code.charAt(1) - 'A', c = code.charAt(2) - 'A';
+        if (a < 0 || a > 25 || b < 0 || b > 25 || c < 0 || c > 25) return -1;
+        return (a * 26 + b) * 26 + c;
+    }
+
+    private int indexOf(String code) {
+        int slot = slot(code);
+        return slot < 0 ? -1 : Arrays.binarySearch(slots, slot);
+    }
+
+    //codes that are not three upper-case letters are ignored
+    public void set(String code, double rate) {
+        int slot = slot(code);
+        if (slot < 0) return;
+        int index = Arrays.binarySearch(slots, slot);
+        if (index >= 0) {
+            rates[index] = rate;
+            return;
+        }
+        int insertAt = -index - 1;
+        int[] grownSlots = new int[slots.length + 1];
+        double[] grownRates = new double[rates.length + 1];
+        System.arraycopy(slots, 0, grownSlots, 0, insertAt);
+        System.arraycopy(rates, 0, grownRates, 0, insertAt);
+        System.arraycopy(slots, insertAt, grownSlots, insertAt + 1, slots.length - insertAt);
+        System.arraycopy(rates, insertAt, grownRates, insertAt + 1, rates.length - insertAt);
+        grownSlots[insertAt] = slot;
+        grownRates[insertAt] = rate;
+        slots = grownSlots;
+        rates = grownRates;
+    }
+
+    //NaN when the currency is missing from the response
+    public double get(String code) {
+        int index = indexOf(code);
+        return index < 0 ? Double.NaN : rates[index];
+    }
+
+    public boolean has(String code) {
+        return !Double.isNaN(get(code));
+    }
+
+    public int size() {
+        return slots.length;
+    }
+
+    public String text(String code) {
+        return has(code) ? String.valueOf(get(code)) : "";
+    }
+
+    public double convert(double amount, String fromCode, String toCode) {
+        return amount / rate(fromCode, fromCode, toCode) * rate(toCode, fromCode, toCode);
+    }
+
+    public BigDecimal convert(BigDecimal amount, String fromCode, String toCode) {
+        double from = rate(fromCode, fromCode, toCode), to = rate(toCode, fromCode, toCode);
+        return amount.multiply(BigDecimal.valueOf(to)).divide(BigDecimal.valueOf(from), 2, RoundingMode.HALF_UP);
+    }
+
+    //both conversions reject a currency the response did not list, rather than one of them answering NaN
+    private double rate(String code, String fromCode, String toCode) {
+        double rate = get(code);
+        if (Double.isNaN(rate)) {
+            throw new IllegalArgumentException("No exchange rate for " + fromCode + " -> " + toCode);
+        }
+        return rate;
+    }
+
+    public static class Deserializer extends JsonDeserializer<RatesTable> {
+
+        @Override
+        public RatesTable deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            RatesTable table = new RatesTable();
+            if (parser.currentToken() != JsonToken.START_OBJECT) {
+                return (RatesTable) context.handleUnexpectedToken(RatesTable.class, parser);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String code = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value.isNumeric()) {
+                    table.set(code, parser.getDoubleValue());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return table;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.accountingapp.dto.projection;
+
+import com.example.accountingapp.enums.InvoiceType;
+
+import java.math.BigDecimal;
+
+public interface InvoiceTotalsRow {
+
+    InvoiceType getInvoiceType();
+
+    BigDecimal getTotalPrice();
+
+    BigDecimal getTotalTax();
+
+    Long getTotalQty();
+}
@@ -0,0 +1,10 @@
+package com.example.accountingapp.dto.projection;
+
+public interface LedgerPeriodRow extends InvoiceTotalsRow {
+
+    Long getCompanyId();
+
+    Integer getPeriodYear();
+
+    Integer getPeriodMonth();
+}
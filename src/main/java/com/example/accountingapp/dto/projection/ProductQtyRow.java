@@ -0,0 +1,8 @@
+package com.example.accountingapp.dto.projection;
+
+public interface ProductQtyRow {
+
+    Long getProductId();
+
+    Long getQty();
+}
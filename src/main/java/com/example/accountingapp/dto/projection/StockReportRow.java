@@ -0,0 +1,22 @@
+package com.example.accountingapp.dto.projection;
+
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.enums.Unit;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public interface StockReportRow {
+
+    LocalDate getInvoiceDate();
+
+    String getProductName();
+
+    Integer getQty();
+
+    Unit getUnit();
+
+    InvoiceType getInvoiceType();
+
+    BigDecimal getPrice();
+}
@@ -2,49 +2,22 @@ package com.example.accountingapp.entity;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 
 import javax.persistence.*;
-import java.time.LocalDateTime;
 
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
+//equal by id alone; the audit columns of AuditableEntity are not part of an entity's identity
+@EqualsAndHashCode(callSuper = false)
 @MappedSuperclass
-public class BaseEntity {
+public class BaseEntity extends AuditableEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, updatable = false)
-    private Long createdBy;
-
-    @Column(nullable = false, updatable = false)
-    private LocalDateTime createdTime;
-
-    @Column(nullable = false)
-    private Long updatedBy;
-
-    @Column(nullable = false)
-    private LocalDateTime updatedTime;
-
-
-    private Boolean isDeleted=false;
-
-    @PrePersist
-    public void onPrePersist() {
-        this.createdTime = LocalDateTime.now();
-        this.updatedTime=LocalDateTime.now();
-        this.createdBy = 1L;
-        this.updatedBy=1L;
-    }
-
-    @PreUpdate
-    public void onPreUpdate() {
-        this.updatedTime=LocalDateTime.now();
-        this.updatedBy=1L;
-    }
-
 }
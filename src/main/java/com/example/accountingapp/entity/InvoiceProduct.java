@@ -4,11 +4,11 @@ package com.example.accountingapp.entity;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.annotations.Where;
 
-import javax.persistence.Entity;
-import javax.persistence.FetchType;
-import javax.persistence.ManyToOne;
+import javax.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
@@ -16,7 +16,19 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 @Where(clause = "is_deleted=false")
-public class InvoiceProduct extends BaseEntity {
+public class InvoiceProduct extends AuditableEntity {
+
+    //pooled-lo sequence: one nextval per 50 ids, so lines can be inserted in JDBC batches.
+    //The column default keeps plain SQL inserts (seed migration) on the same sequence.
+    @Id
+    @GeneratedValue(generator = "invoice_product_seq")
+    @GenericGenerator(name = "invoice_product_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "invoice_product_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
+    @Column(columnDefinition = "bigint default nextval('invoice_product_seq')")
+    private Long id;
 
     private String name;
     private Integer qty;
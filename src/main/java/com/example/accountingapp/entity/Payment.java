@@ -14,7 +14,7 @@ import javax.persistence.*;
 public class Payment extends BaseEntity {
 
   // @Column(columnDefinition = "DATE")
-  private String year;
+  private Integer year;
   private Integer amount;
   private Boolean isPaid;
   private String institutionId;
@@ -22,7 +22,15 @@ public class Payment extends BaseEntity {
   @Enumerated(EnumType.STRING)
   private PaymentMonth month;
 
+  //kept in step with month: the calendar query sorts on it and it is part of the (company, year, month) index
+  private Integer monthOrdinal;
+
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "company_id")
   private Company company;
+
+  public void setMonth(PaymentMonth month) {
+    this.month = month;
+    this.monthOrdinal = month == null ? null : month.getNumber();
+  }
 }
@@ -25,7 +25,8 @@ public class Product extends BaseEntity {
     @JoinColumn(name = "category_id")
    private Category category;
 
-    private BigInteger qty;
+    @Column(nullable = false)
+    private long qty;
 
     @Enumerated(EnumType.STRING)
     private Unit unit;
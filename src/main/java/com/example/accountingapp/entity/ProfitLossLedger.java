@@ -0,0 +1,46 @@
+package com.example.accountingapp.entity;
+
+import com.example.accountingapp.enums.InvoiceType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"company_id", "invoice_type", "period_year", "period_month"}))
+public class ProfitLossLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "company_id", nullable = false)
+    private Company company;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InvoiceType invoiceType;
+
+    @Column(nullable = false)
+    private Integer periodYear;
+
+    @Column(nullable = false)
+    private Integer periodMonth;
+
+    private BigDecimal totalPrice = BigDecimal.ZERO;
+    private BigDecimal totalTax = BigDecimal.ZERO;
+    private Long totalQty = 0L;
+
+    public ProfitLossLedger(Company company, InvoiceType invoiceType, Integer periodYear, Integer periodMonth) {
+        this.company = company;
+        this.invoiceType = invoiceType;
+        this.periodYear = periodYear;
+        this.periodMonth = periodMonth;
+    }
+}
@@ -2,6 +2,8 @@ package com.example.accountingapp.entity;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -13,8 +15,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class StockDetails {
 
+    //pooled-lo sequence like invoice_product, so lots from one purchase invoice are inserted in JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "stock_details_seq")
+    @GenericGenerator(name = "stock_details_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = "stock_details_seq"),
+            @Parameter(name = "increment_size", value = "50"),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
+    @Column(columnDefinition = "bigint default nextval('stock_details_seq')")
     private Long id;
 
     @Column(columnDefinition = "TIMESTAMP")
@@ -24,6 +33,6 @@ public class StockDetails {
     private BigDecimal price;
     private BigInteger remainingQuantity;
 
-    @OneToOne
+    @ManyToOne
     private Product product;
 }
@@ -0,0 +1,44 @@
+package com.example.accountingapp.entity;
+
+import com.example.accountingapp.enums.StripeEventStatus;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//A Stripe webhook event as it was delivered, keyed by Stripe's event id so a redelivery is recognised
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class StripeEvent {
+
+    @Id
+    private String eventId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StripeEventStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedTime;
+
+    private LocalDateTime processedTime;
+}
@@ -24,4 +24,9 @@ public enum PaymentMonth {
     public String getValue() {
         return value;
     }
+
+    //1 for January through 12 for December
+    public int getNumber() {
+        return ordinal() + 1;
+    }
 }
@@ -0,0 +1,7 @@
+package com.example.accountingapp.enums;
+
+public enum StripeEventStatus {
+
+    PENDING, PROCESSED, FAILED
+
+}
@@ -0,0 +1,33 @@
+package com.example.accountingapp.export;
+
+import java.io.OutputStream;
+
+public enum ExportFormat {
+    CSV("text/csv", "csv"),
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String fileName(String baseName) {
+        return baseName + "." + extension;
+    }
+
+    public TableWriter open(OutputStream out, String sheetName) {
+        return this == CSV ? new CsvTableWriter(out) : new XlsxTableWriter(out, sheetName);
+    }
+
+    //unknown values fall back to CSV
+    public static ExportFormat of(String value) {
+        return "xlsx".equalsIgnoreCase(value) ? XLSX : CSV;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.accountingapp.export;
+
+import java.io.IOException;
+
+//Writes a report one row at a time straight to the response; nothing but the current row is kept in memory.
+public interface TableWriter extends AutoCloseable {
+
+    void writeRow(Object... cells) throws IOException;
+
+    //finishes the document and flushes it, without closing the underlying stream
+    @Override
+    void close() throws IOException;
+}
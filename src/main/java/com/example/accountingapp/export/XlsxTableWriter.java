@@ -0,0 +1,53 @@
+package com.example.accountingapp.export;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+//Streaming workbook: only the last WINDOW_SIZE rows stay in memory, older rows are flushed to a temp file
+//that is copied to the response on close.
+public class XlsxTableWriter implements TableWriter {
+
+    private static final int WINDOW_SIZE = 100;
+
+    private final OutputStream out;
+    private final SXSSFWorkbook workbook;
+    private final SXSSFSheet sheet;
+    private int rowIndex;
+
+    public XlsxTableWriter(OutputStream out, String sheetName) {
+        this.out = out;
+        this.workbook = new SXSSFWorkbook(WINDOW_SIZE);
+        this.workbook.setCompressTempFiles(true);
+        this.sheet = workbook.createSheet(sheetName);
+    }
+
+    @Override
+    public void writeRow(Object... cells) {
+        Row row = sheet.createRow(rowIndex++);
+        for (int i = 0; i < cells.length; i++) {
+            Object value = cells[i];
+            if (value == null) continue;
+            Cell cell = row.createCell(i);
+            if (value instanceof BigDecimal) cell.setCellValue(((BigDecimal) value).doubleValue());
+            else if (value instanceof Number) cell.setCellValue(((Number) value).doubleValue());
+            else cell.setCellValue(value.toString());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            workbook.write(out);
+            out.flush();
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
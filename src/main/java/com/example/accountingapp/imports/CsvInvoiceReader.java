@@ -0,0 +1,134 @@
+package com.example.accountingapp.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//One record per invoice line, the invoice columns repeated on each of its lines:
+//invoice_number,invoice_type,invoice_date,status,client_vendor,product,qty,price,tax
+//Columns are found by their header name, in any order; status and tax may be left out.
+//Consecutive records with the same invoice_number make up one invoice. Quoting is the same as CsvTableWriter's.
+public class CsvInvoiceReader implements InvoiceReader {
+
+    private static final String[] REQUIRED = {"invoice_number", "invoice_type", "invoice_date", "client_vendor", "product", "qty", "price"};
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int row;
+    private List<String> pending;
+    private int pendingRow;
+
+    public CsvInvoiceReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    @Override
+    public ImportedInvoice next() throws IOException {
+        if (row == 0) readHeader();
+        List<String> record = pending != null ? pending : readRecord();
+        int recordRow = pending != null ? pendingRow : row;
+        pending = null;
+        if (record == null) return null;
+
+        ImportedInvoice invoice = new ImportedInvoice();
+        invoice.setRow(recordRow);
+        invoice.setInvoiceNumber(cell(record, "invoice_number"));
+        invoice.setInvoiceType(cell(record, "invoice_type"));
+        invoice.setInvoiceDate(cell(record, "invoice_date"));
+        invoice.setStatus(cell(record, "status"));
+        invoice.setClientVendor(cell(record, "client_vendor"));
+        invoice.getLines().add(line(record, recordRow));
+
+        while ((record = readRecord()) != null) {
+            String invoiceNumber = cell(record, "invoice_number");
+            if (invoiceNumber == null || !invoiceNumber.equals(invoice.getInvoiceNumber())) {
+                pending = record;
+                pendingRow = row;
+                break;
+            }
+            invoice.getLines().add(line(record, row));
+        }
+        return invoice;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        List<String> header = readRecord();
+        if (header == null) throw new IllegalArgumentException("The CSV file is empty");
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for (String each : REQUIRED) {
+            if (!columns.containsKey(each)) throw new IllegalArgumentException("The CSV header has no " + each + " column");
+        }
+    }
+
+    private ImportedInvoice.ImportedLine line(List<String> record, int recordRow) {
+        ImportedInvoice.ImportedLine line = new ImportedInvoice.ImportedLine();
+        line.setRow(recordRow);
+        line.setProduct(cell(record, "product"));
+        line.setQty(cell(record, "qty"));
+        line.setPrice(cell(record, "price"));
+        line.setTax(cell(record, "tax"));
+        return line;
+    }
+
+    private String cell(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) return null;
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    //one record, which may span several physical lines inside quotes; blank lines are skipped
+    private List<String> readRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) return null;
+        } while (line.isEmpty());
+        row++;
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        cell.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cell.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                } else {
+                    cell.append(c);
+                }
+            }
+            if (!quoted) break;
+            line = reader.readLine();
+            if (line == null) throw new IllegalArgumentException("Row " + row + ": a quoted value is not closed");
+            cell.append('\n');
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
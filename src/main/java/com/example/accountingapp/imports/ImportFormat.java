@@ -0,0 +1,20 @@
+package com.example.accountingapp.imports;
+
+import java.io.InputStream;
+
+public enum ImportFormat {
+    CSV,
+    JSON;
+
+    public InvoiceReader open(InputStream in) {
+        return this == CSV ? new CsvInvoiceReader(in) : new JsonInvoiceReader(in);
+    }
+
+    //the format parameter wins over the request's content type; anything unknown is read as CSV
+    public static ImportFormat of(String value, String contentType) {
+        if (value != null) {
+            return "json".equalsIgnoreCase(value) ? JSON : CSV;
+        }
+        return contentType != null && contentType.toLowerCase().contains("json") ? JSON : CSV;
+    }
+}
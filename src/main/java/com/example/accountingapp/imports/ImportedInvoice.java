@@ -0,0 +1,41 @@
+package com.example.accountingapp.imports;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class ImportedInvoice {
+
+    //CSV: record of the first line, JSON: position in the array
+    @JsonIgnore
+    private int row;
+
+    private String invoiceNumber;
+    private String invoiceType;
+    private String invoiceDate;
+    private String status;
+    private String clientVendor;
+    private List<ImportedLine> lines = new ArrayList<>();
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class ImportedLine {
+
+        //CSV: record of the line, JSON: position of the invoice in the array
+        @JsonIgnore
+        private int row;
+
+        private String product;
+        private String qty;
+        private String price;
+        private String tax;
+    }
+}
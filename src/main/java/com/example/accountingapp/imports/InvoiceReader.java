@@ -0,0 +1,15 @@
+package com.example.accountingapp.imports;
+
+import java.io.IOException;
+
+//Reads an import one invoice at a time; only the current invoice and its lines are kept in memory.
+//Values are handed over as text, checking them is left to the importer so every bad row ends up in the report.
+//A file that cannot be read any further (broken JSON, missing CSV columns) ends the import with an IllegalArgumentException.
+public interface InvoiceReader extends AutoCloseable {
+
+    //the next invoice, or null at the end of the input
+    ImportedInvoice next() throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
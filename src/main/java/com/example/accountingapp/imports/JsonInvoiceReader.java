@@ -0,0 +1,59 @@
+package com.example.accountingapp.imports;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+//An array of invoices, each with its lines:
+//[{"invoiceNumber": "P-INV101", "invoiceType": "PURCHASE", "invoiceDate": "2022-03-01", "status": "APPROVED",
+//  "clientVendor": "Apple", "lines": [{"product": "iPhone", "qty": 5, "price": 900, "tax": 8}]}]
+//The parser walks the array and binds one invoice at a time, the rest of the document is never held in memory.
+public class JsonInvoiceReader implements InvoiceReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final InputStream in;
+    private JsonParser parser;
+    private int row;
+
+    public JsonInvoiceReader(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public ImportedInvoice next() throws IOException {
+        try {
+            if (parser == null) {
+                parser = MAPPER.getFactory().createParser(in);
+                if (parser.nextToken() != JsonToken.START_ARRAY) throw new IllegalArgumentException("Expected a JSON array of invoices");
+            }
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) return null;
+            if (token != JsonToken.START_OBJECT) throw new IllegalArgumentException("Invoice " + (row + 1) + " is not a JSON object");
+
+            ImportedInvoice invoice = MAPPER.readValue(parser, ImportedInvoice.class);
+            invoice.setRow(++row);
+            if (invoice.getLines() != null) {
+                invoice.getLines().forEach(line -> line.setRow(row));
+            }
+            return invoice;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invoice " + (row + 1) + ": " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (parser != null) {
+            parser.close();
+        } else {
+            in.close();
+        }
+    }
+}
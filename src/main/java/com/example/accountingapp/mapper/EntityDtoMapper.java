@@ -0,0 +1,76 @@
+package com.example.accountingapp.mapper;
+
+import com.example.accountingapp.dto.*;
+import com.example.accountingapp.entity.*;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+//Generated at compile time by MapStruct; MapperUtil dispatches to these before falling back to ModelMapper.
+//Lazy associations that the pages never read are left out so mapping does not initialize proxies.
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface EntityDtoMapper {
+
+    @Mapping(target = "companyName", source = "clientVendor.companyName")
+    @Mapping(target = "invoiceProductList", ignore = true)
+    @Mapping(target = "product", ignore = true)
+    InvoiceDTO toInvoiceDTO(Invoice invoice);
+
+    Invoice toInvoice(InvoiceDTO invoiceDTO);
+
+    @Mapping(target = "productId", source = "product.id")
+    @Mapping(target = "productDTO", ignore = true)
+    @Mapping(target = "invoiceDTO", ignore = true)
+    @Mapping(target = "clientVendorDTO", ignore = true)
+    @Mapping(target = "total", ignore = true)
+    InvoiceProductDTO toInvoiceProductDTO(InvoiceProduct invoiceProduct);
+
+    @Mapping(target = "product", ignore = true)
+    @Mapping(target = "invoice", ignore = true)
+    InvoiceProduct toInvoiceProduct(InvoiceProductDTO invoiceProductDTO);
+
+    ProductDTO toProductDTO(Product product);
+
+    Product toProduct(ProductDTO productDTO);
+
+    ClientVendorDTO toClientVendorDTO(ClientVendor clientVendor);
+
+    @Mapping(target = "company", ignore = true)
+    ClientVendor toClientVendor(ClientVendorDTO clientVendorDTO);
+
+    @Mapping(target = "companyDTO", ignore = true)
+    PaymentDTO toPaymentDTO(Payment payment);
+
+    @Mapping(target = "company", ignore = true)
+    Payment toPayment(PaymentDTO paymentDTO);
+
+    CompanyDTO toCompanyDTO(Company company);
+
+    Company toCompany(CompanyDTO companyDTO);
+
+    @Mapping(target = "passWord", ignore = true)
+    UserDTO toUserDTO(User user);
+
+    @Mapping(target = "password", source = "passWord")
+    User toUser(UserDTO userDTO);
+
+    CategoryDTO toCategoryDTO(Category category);
+
+    @Mapping(target = "company", ignore = true)
+    Category toCategory(CategoryDTO categoryDTO);
+
+    RoleDTO toRoleDTO(Role role);
+
+    Role toRole(RoleDTO roleDTO);
+
+    default LocalDate toLocalDate(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toLocalDate();
+    }
+
+    default LocalDateTime toLocalDateTime(LocalDate date) {
+        return date == null ? null : date.atStartOfDay();
+    }
+}
@@ -1,19 +1,69 @@
 package com.example.accountingapp.mapper;
 
+import com.example.accountingapp.dto.*;
+import com.example.accountingapp.entity.*;
+import org.hibernate.proxy.HibernateProxyHelper;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Component
 public class MapperUtil {
 
     private final ModelMapper modelMapper;
+    private final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> generatedMappers = new HashMap<>();
 
-    public MapperUtil(ModelMapper modelMapper) {
+    public MapperUtil(ModelMapper modelMapper, EntityDtoMapper entityDtoMapper) {
         this.modelMapper = modelMapper;
+
+        register(Invoice.class, InvoiceDTO.class, entityDtoMapper::toInvoiceDTO);
+        register(InvoiceDTO.class, Invoice.class, entityDtoMapper::toInvoice);
+        register(InvoiceProduct.class, InvoiceProductDTO.class, entityDtoMapper::toInvoiceProductDTO);
+        register(InvoiceProductDTO.class, InvoiceProduct.class, entityDtoMapper::toInvoiceProduct);
+        register(Product.class, ProductDTO.class, entityDtoMapper::toProductDTO);
+        register(ProductDTO.class, Product.class, entityDtoMapper::toProduct);
+        register(ClientVendor.class, ClientVendorDTO.class, entityDtoMapper::toClientVendorDTO);
+        register(ClientVendorDTO.class, ClientVendor.class, entityDtoMapper::toClientVendor);
+        register(Payment.class, PaymentDTO.class, entityDtoMapper::toPaymentDTO);
+        register(PaymentDTO.class, Payment.class, entityDtoMapper::toPayment);
+        register(Company.class, CompanyDTO.class, entityDtoMapper::toCompanyDTO);
+        register(CompanyDTO.class, Company.class, entityDtoMapper::toCompany);
+        register(User.class, UserDTO.class, entityDtoMapper::toUserDTO);
+        register(UserDTO.class, User.class, entityDtoMapper::toUser);
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T convert(Object objectToBeConverted, T convertedObject) {
+        if (objectToBeConverted instanceof Optional) {
+            objectToBeConverted = ((Optional<?>) objectToBeConverted).orElse(null);
+        }
+        if (objectToBeConverted == null) {
+            return null;
+        }
+        Function<Object, Object> generatedMapper = findGeneratedMapper(objectToBeConverted, convertedObject.getClass());
+        if (generatedMapper != null) {
+            return (T) generatedMapper.apply(objectToBeConverted);
+        }
         return modelMapper.map(objectToBeConverted, (Type) convertedObject.getClass());
     }
-}
\ No newline at end of file
+
+    private <S, T> void register(Class<S> sourceType, Class<T> targetType, Function<S, T> mapper) {
+        generatedMappers.computeIfAbsent(sourceType, k -> new HashMap<>())
+                .put(targetType, source -> mapper.apply(sourceType.cast(source)));
+    }
+
+    //lazy associations arrive as Hibernate proxy subclasses, so walk up to the mapped entity class
+    private Function<Object, Object> findGeneratedMapper(Object source, Class<?> targetType) {
+        for (Class<?> type = HibernateProxyHelper.getClassWithoutInitializingProxy(source); type != null; type = type.getSuperclass()) {
+            Map<Class<?>, Function<Object, Object>> byTarget = generatedMappers.get(type);
+            if (byTarget != null) {
+                return byTarget.get(targetType);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.accountingapp.pagination;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final Long previousCursor;
+    private final Long nextCursor;
+    private final int size;
+    private final String sort;
+    private final String filter;
+
+    public KeysetPage(List<T> content, Long previousCursor, Long nextCursor, KeysetRequest request) {
+        this.content = content;
+        this.previousCursor = previousCursor;
+        this.nextCursor = nextCursor;
+        this.size = request.getPageSize();
+        this.sort = request.getSortOrDefault();
+        this.filter = request.getFilterOrEmpty();
+    }
+
+    private KeysetPage(List<T> content, KeysetPage<?> source) {
+        this.content = content;
+        this.previousCursor = source.previousCursor;
+        this.nextCursor = source.nextCursor;
+        this.size = source.size;
+        this.sort = source.sort;
+        this.filter = source.filter;
+    }
+
+    public <R> KeysetPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new KeysetPage<>(content.stream().map(mapper).collect(Collectors.toList()), this);
+    }
+
+    public boolean hasPrevious() {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
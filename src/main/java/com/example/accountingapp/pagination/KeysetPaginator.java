@@ -0,0 +1,47 @@
+package com.example.accountingapp.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+//Seek pagination on the primary key: every page is "id > cursor" or "id < cursor" with LIMIT size + 1,
+//so a deep page costs the same index range scan as the first one and no COUNT query is issued.
+public final class KeysetPaginator {
+
+    private KeysetPaginator() {
+    }
+
+    public static <T> KeysetPage<T> fetch(KeysetRequest request,
+                                          BiFunction<Long, Pageable, Slice<T>> idGreaterThan,
+                                          BiFunction<Long, Pageable, Slice<T>> idLessThan,
+                                          Function<T, Long> idOf) {
+        boolean backward = request.getBefore() != null;
+        //reading backwards through an ascending list is a forward read in descending order, and vice versa
+        boolean readAscending = request.isAscending() != backward;
+
+        Long cursor = backward ? request.getBefore() : request.getAfter();
+        if (cursor == null) cursor = readAscending ? 0L : Long.MAX_VALUE;
+
+        Pageable pageable = PageRequest.of(0, request.getPageSize(), Sort.by(readAscending ? Sort.Direction.ASC : Sort.Direction.DESC, "id"));
+        Slice<T> slice = readAscending ? idGreaterThan.apply(cursor, pageable) : idLessThan.apply(cursor, pageable);
+
+        List<T> rows = new ArrayList<>(slice.getContent());
+        if (backward) Collections.reverse(rows);
+        if (rows.isEmpty()) {
+            return new KeysetPage<>(rows, null, null, request);
+        }
+
+        Long firstId = idOf.apply(rows.get(0));
+        Long lastId = idOf.apply(rows.get(rows.size() - 1));
+        Long previousCursor = backward ? (slice.hasNext() ? firstId : null) : (request.getAfter() != null ? firstId : null);
+        Long nextCursor = backward ? lastId : (slice.hasNext() ? lastId : null);
+        return new KeysetPage<>(rows, previousCursor, nextCursor, request);
+    }
+}
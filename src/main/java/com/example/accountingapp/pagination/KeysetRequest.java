@@ -0,0 +1,41 @@
+package com.example.accountingapp.pagination;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//Bound from the query string of the list pages: ?after=..|before=..&size=..&sort=asc|desc&filter=..
+@Data
+@NoArgsConstructor
+public class KeysetRequest {
+
+    public static final int DEFAULT_SIZE = 25;
+    public static final int MAX_SIZE = 200;
+
+    private Long after;
+    private Long before;
+    private Integer size;
+    private String sort;
+    private String filter;
+
+    public int getPageSize() {
+        if (size == null || size < 1) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+
+    public boolean isAscending() {
+        return !"desc".equalsIgnoreCase(sort);
+    }
+
+    public String getSortOrDefault() {
+        return isAscending() ? "asc" : "desc";
+    }
+
+    public String getFilterOrEmpty() {
+        return filter == null ? "" : filter.trim();
+    }
+
+    //pattern for hand-written LIKE queries; derived ...ContainingIgnoreCase queries take getFilterOrEmpty()
+    public String getFilterPattern() {
+        return "%" + getFilterOrEmpty().toLowerCase() + "%";
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.accountingapp.pdf;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public final class PdfDownloads {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private PdfDownloads() {
+    }
+
+    public static void prepare(HttpServletResponse response, String fileName) {
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"");
+    }
+
+    //Tomcat's connector hands the file to the kernel (sendfile) once the request completes,
+    //so the bytes never pass through the heap. Without sendfile support it is copied as usual.
+    public static void send(Path file, String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        prepare(response, fileName);
+        long length = Files.size(file);
+        response.setContentLengthLong(length);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+        } else {
+            Files.copy(file, response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.accountingapp.pdf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//Rendered PDFs of documents that no longer change, kept on disk as <name>-<version>.pdf.
+//A new version retires the older files of the same name; they are deleted once the grace period has passed,
+//so a response that was handed the old path (and may still be queued for sendfile) can finish sending it.
+//Files are written to a temporary name and moved into place, readers never see a half-written PDF.
+@Component
+public class PdfFileCache {
+
+    private final Logger logger = LoggerFactory.getLogger(PdfFileCache.class);
+
+    private final Path directory;
+    private final long graceMs;
+    private final Map<Path, Long> retiredAt = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PdfFileCache(@Value("${pdf.cache-dir:${java.io.tmpdir}/accountingapp-pdf}") String directory,
+                        @Value("${pdf.cache-grace-ms:60000}") long graceMs) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.graceMs = graceMs;
+    }
+
+    public Path get(String name, String version, Content content) throws IOException {
+        Path file = directory.resolve(name + "-" + version + ".pdf");
+        if (Files.isRegularFile(file)) {
+            hits.increment();
+            retiredAt.remove(file);
+            return file;
+        }
+        misses.increment();
+        Path temp = Files.createTempFile(directory, name + "-", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                content.writeTo(out);
+            }
+            moveIntoPlace(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        retireOtherVersions(name, file);
+        return file;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.sum();
+        long requests = hitCount + misses.sum();
+        stats.put("directory", directory.toString());
+        stats.put("hits", hitCount);
+        stats.put("misses", requests - hitCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("retired", retiredAt.size());
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${pdf.cache-grace-ms:60000}")
+    public void deleteRetired() {
+        long now = System.currentTimeMillis();
+        retiredAt.forEach((file, at) -> {
+            if (now - at < graceMs) return;
+            try {
+                Files.deleteIfExists(file);
+                retiredAt.remove(file, at);
+            } catch (IOException e) {
+                logger.warn("Could not delete retired PDF {}: {}", file, e.getMessage());
+            }
+        });
+    }
+
+    private void moveIntoPlace(Path temp, Path file) throws IOException {
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private void retireOtherVersions(String name, Path keep) throws IOException {
+        long now = System.currentTimeMillis();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, name + "-*.pdf")) {
+            for (Path each : files) {
+                if (!each.equals(keep)) {
+                    retiredAt.putIfAbsent(each, now);
+                }
+            }
+        }
+        //a version that comes back (an edit undone within the grace period) is live again
+        retiredAt.remove(keep);
+    }
+
+    @FunctionalInterface
+    public interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
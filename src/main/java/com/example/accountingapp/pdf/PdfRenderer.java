@@ -0,0 +1,32 @@
+package com.example.accountingapp.pdf;
+
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+
+//Renders a Thymeleaf template to PDF on the server. The templates used here must be well-formed XHTML
+//with inline styles only: no fragments, no @{...} links and no named entities other than the XML ones.
+@Component
+public class PdfRenderer {
+
+    private final ITemplateEngine templateEngine;
+
+    public PdfRenderer(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    public void render(String template, Map<String, Object> variables, OutputStream out) throws IOException {
+        String html = templateEngine.process(template, new Context(Locale.getDefault(), variables));
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.useFastMode();
+        builder.withHtmlContent(html, null);
+        builder.toStream(out);
+        builder.run();
+    }
+}
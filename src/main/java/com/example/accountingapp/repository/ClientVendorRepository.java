@@ -2,6 +2,8 @@ package com.example.accountingapp.repository;
 
 import com.example.accountingapp.entity.ClientVendor;
 import com.example.accountingapp.enums.CompanyType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,6 +13,10 @@ import java.util.Optional;
 
 public interface ClientVendorRepository extends JpaRepository<ClientVendor, Long> {
     List<ClientVendor> findAllBy();
+
+    Slice<ClientVendor> findByCompanyNameContainingIgnoreCaseAndIdGreaterThan(String companyName, Long id, Pageable pageable);
+
+    Slice<ClientVendor> findByCompanyNameContainingIgnoreCaseAndIdLessThan(String companyName, Long id, Pageable pageable);
     ClientVendor findByEmail(String email);
     List<ClientVendor> findAllByType(CompanyType companyType);
 
@@ -18,4 +24,6 @@ public interface ClientVendorRepository extends JpaRepository<ClientVendor, Long
     String findClientNameById(@Param("id") Long id);
 
     Optional<ClientVendor> findByCompanyName(String companyName);
+
+    List<ClientVendor> findAllByCompany_Id(Long companyId);
 }
\ No newline at end of file
@@ -1,15 +1,30 @@
 package com.example.accountingapp.repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import com.example.accountingapp.dto.projection.InvoiceTotalsRow;
+import com.example.accountingapp.dto.projection.LedgerPeriodRow;
+import com.example.accountingapp.dto.projection.ProductQtyRow;
+import com.example.accountingapp.dto.projection.ProductReportRow;
+import com.example.accountingapp.dto.projection.StockReportRow;
 import com.example.accountingapp.entity.Company;
 import com.example.accountingapp.entity.InvoiceProduct;
 import com.example.accountingapp.enums.InvoiceType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface InvoiceProductRepository extends JpaRepository<InvoiceProduct, Long> {
 
@@ -17,8 +32,11 @@ public interface InvoiceProductRepository extends JpaRepository<InvoiceProduct,
     List<InvoiceProduct>  findAllByInvoiceId(@Param("id") Long id);
 
 
-    @Query(value = "SELECT MAX(id) FROM invoice_product",nativeQuery = true)
-    Optional<Long> findHighestId();
+    @Query("SELECT i FROM InvoiceProduct i JOIN FETCH i.invoice WHERE i.invoice.id IN ?1 AND i.enabled = true")
+    List<InvoiceProduct> findAllEnabledByInvoiceIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COALESCE(SUM(i.price * i.qty), 0) FROM InvoiceProduct i WHERE i.invoice.id = ?1 AND i.enabled = true")
+    BigDecimal sumCostByInvoiceId(@Param("id") Long id);
 
 
     @Query("SELECT i.invoice.id from InvoiceProduct i where i.id =?1")
@@ -27,10 +45,52 @@ public interface InvoiceProductRepository extends JpaRepository<InvoiceProduct,
 
     List<InvoiceProduct> getByInvoiceId(Long id);
 
+    @Query("SELECT i.product.id AS productId, SUM(i.qty) AS qty FROM InvoiceProduct i WHERE i.invoice.id = ?1 GROUP BY i.product.id")
+    List<ProductQtyRow> sumQtyByProductForInvoice(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE InvoiceProduct i SET i.enabled = ?2 WHERE i.invoice.id = ?1")
+    int setEnabledByInvoiceId(@Param("id") Long id, @Param("enabled") boolean enabled);
+
 
     List<InvoiceProduct> findAllByInvoice_Company(Company Company);
+    List<InvoiceProduct> findAllByInvoice_Company_Id(Long companyId);
     List<InvoiceProduct> findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType invoiceType, Company company);
 
+    @Query("SELECT i.name AS name, i.invoice.invoiceType AS invoiceType, SUM(i.qty) AS qty, SUM(i.price) AS total " +
+            "FROM InvoiceProduct i WHERE i.invoice.company.id = ?1 GROUP BY i.name, i.invoice.invoiceType")
+    List<ProductReportRow> sumByProductAndInvoiceType(@Param("companyId") Long companyId);
+
+    @Query("SELECT v.invoiceType AS invoiceType, COALESCE(SUM(i.price), 0) AS totalPrice, COALESCE(SUM(i.tax), 0) AS totalTax, COALESCE(SUM(i.qty), 0) AS totalQty " +
+            "FROM InvoiceProduct i JOIN i.invoice v WHERE v.id = ?1 GROUP BY v.invoiceType")
+    List<InvoiceTotalsRow> sumByInvoiceId(@Param("id") Long id);
+
+    @Query("SELECT v.invoiceType AS invoiceType, COALESCE(SUM(i.price), 0) AS totalPrice, COALESCE(SUM(i.tax), 0) AS totalTax, COALESCE(SUM(i.qty), 0) AS totalQty " +
+            "FROM InvoiceProduct i JOIN i.invoice v " +
+            "WHERE v.company.id = ?1 AND v.invoiceStatus = com.example.accountingapp.enums.InvoiceStatus.APPROVED AND v.isDeleted = false " +
+            "AND v.invoiceDate BETWEEN ?2 AND ?3 GROUP BY v.invoiceType")
+    List<InvoiceTotalsRow> sumApprovedByCompanyAndInvoiceDateBetween(@Param("companyId") Long companyId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT v.company.id AS companyId, v.invoiceType AS invoiceType, YEAR(v.invoiceDate) AS periodYear, MONTH(v.invoiceDate) AS periodMonth, " +
+            "COALESCE(SUM(i.price), 0) AS totalPrice, COALESCE(SUM(i.tax), 0) AS totalTax, COALESCE(SUM(i.qty), 0) AS totalQty " +
+            "FROM InvoiceProduct i JOIN i.invoice v " +
+            "WHERE v.invoiceStatus = com.example.accountingapp.enums.InvoiceStatus.APPROVED AND v.isDeleted = false " +
+            "GROUP BY v.company.id, v.invoiceType, YEAR(v.invoiceDate), MONTH(v.invoiceDate)")
+    List<LedgerPeriodRow> sumApprovedByPeriod();
+
+    //forward-only cursors for the report exports: rows are fetched EXPORT_FETCH_SIZE at a time and never become managed entities
+    String EXPORT_FETCH_SIZE = "1000";
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT v.invoiceDate AS invoiceDate, p.name AS productName, i.qty AS qty, p.unit AS unit, v.invoiceType AS invoiceType, i.price AS price " +
+            "FROM InvoiceProduct i JOIN i.invoice v JOIN i.product p WHERE v.company.id = ?1 ORDER BY v.invoiceDate, i.id")
+    Stream<StockReportRow> streamStockReportByCompanyId(@Param("companyId") Long companyId);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query("SELECT i.name AS name, i.invoice.invoiceType AS invoiceType, SUM(i.qty) AS qty, SUM(i.price) AS total " +
+            "FROM InvoiceProduct i WHERE i.invoice.company.id = ?1 GROUP BY i.name, i.invoice.invoiceType ORDER BY i.name")
+    Stream<ProductReportRow> streamByProductAndInvoiceTypeOrderByName(@Param("companyId") Long companyId);
+
 
 
 
@@ -2,28 +2,70 @@ package com.example.accountingapp.repository;
 
 import com.example.accountingapp.entity.Invoice;
 import com.example.accountingapp.enums.InvoiceType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 
 public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
 
     List<Invoice> findAllByInvoiceType(InvoiceType invoiceType);
 
-    @Query("SELECT MAX(id) FROM Invoice")
-    long selectMaxInvoiceId();
+    //invoice lists of one company; keyset pages use ix_invoice_company_type_id
+    @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.clientVendor LEFT JOIN FETCH i.company WHERE i.company.id = ?1 AND i.invoiceType = ?2 AND i.enabled = true")
+    List<Invoice> findAllEnabledByInvoiceTypeFetchParties(@Param("companyId") Long companyId, @Param("invoiceType") InvoiceType invoiceType);
+
+    @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.clientVendor LEFT JOIN FETCH i.company " +
+            "WHERE i.company.id = ?1 AND i.invoiceType = ?2 AND i.enabled = true AND LOWER(i.invoiceNumber) LIKE ?3 AND i.id > ?4")
+    Slice<Invoice> findEnabledPageByInvoiceTypeAndIdGreaterThan(@Param("companyId") Long companyId, @Param("invoiceType") InvoiceType invoiceType, @Param("filter") String filterPattern, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT i FROM Invoice i LEFT JOIN FETCH i.clientVendor LEFT JOIN FETCH i.company " +
+            "WHERE i.company.id = ?1 AND i.invoiceType = ?2 AND i.enabled = true AND LOWER(i.invoiceNumber) LIKE ?3 AND i.id < ?4")
+    Slice<Invoice> findEnabledPageByInvoiceTypeAndIdLessThan(@Param("companyId") Long companyId, @Param("invoiceType") InvoiceType invoiceType, @Param("filter") String filterPattern, @Param("id") Long id, Pageable pageable);
+
+    //nextval and setval write: without @Transactional they would inherit the read-only default of query methods,
+    //which PostgreSQL rejects when no service transaction is open (the import writer calls skipPast outside one)
+    @Transactional
+    @Query(value = "SELECT nextval('sale_invoice_number_seq')", nativeQuery = true)
+    long nextSaleInvoiceNumberBlock();
+
+    @Transactional
+    @Query(value = "SELECT nextval('purchase_invoice_number_seq')", nativeQuery = true)
+    long nextPurchaseInvoiceNumberBlock();
+
+    //moves the sequence to at least number, the next block then starts above it
+    @Transactional
+    @Query(value = "SELECT setval('sale_invoice_number_seq', GREATEST(?1, (SELECT last_value FROM sale_invoice_number_seq)))", nativeQuery = true)
+    long skipSaleInvoiceNumbersPast(@Param("number") long number);
+
+    @Transactional
+    @Query(value = "SELECT setval('purchase_invoice_number_seq', GREATEST(?1, (SELECT last_value FROM purchase_invoice_number_seq)))", nativeQuery = true)
+    long skipPurchaseInvoiceNumbersPast(@Param("number") long number);
 
     @Query(value = "SELECT id FROM Invoice WHERE invoice_number = ?1", nativeQuery = true)
     Long getInvoiceId(@Param("id") String id);
 
     Invoice findByInvoiceNumber(String invoiceId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.id = ?1")
+    Optional<Invoice> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Invoice i WHERE i.invoiceNumber = ?1")
+    Optional<Invoice> findByInvoiceNumberForUpdate(@Param("invoiceNumber") String invoiceNumber);
+
     @Query("SELECT invoiceNumber FROM Invoice WHERE invoiceNumber = ?1")
     String findInvoiceNameByInvoiceId(@Param("id") String invoiceId);
 
-    @Query(value = "SELECT * FROM invoice i INNER JOIN company c ON c.id = i.company_id WHERE c.title = ?1 ORDER BY i.invoice_date DESC LIMIT 3 ", nativeQuery = true)
-    List<Invoice> findLast3InvoiceByDate(@Param("companyTitle") String companyTitle);
+    @Query(value = "SELECT * FROM invoice i WHERE i.company_id = ?1 ORDER BY i.invoice_date DESC LIMIT 3 ", nativeQuery = true)
+    List<Invoice> findLast3InvoiceByDate(@Param("companyId") Long companyId);
 }
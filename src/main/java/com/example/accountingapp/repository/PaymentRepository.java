@@ -14,8 +14,8 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
   Payment findPaymentById(Long id);
 
-  @Query(value = "SELECT * FROM payment ORDER BY to_date(month,'Month')",nativeQuery = true)
-  List<Payment> findPaymentByYearOrderByMonth(String year);
+  @Query("SELECT p FROM Payment p WHERE p.company.id = ?1 AND p.year = ?2 ORDER BY p.monthOrdinal")
+  List<Payment> findCalendarByCompanyIdAndYear(Long companyId, Integer year);
 
 
 
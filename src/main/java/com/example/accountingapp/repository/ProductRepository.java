@@ -3,6 +3,8 @@ package com.example.accountingapp.repository;
 import com.example.accountingapp.dto.ProductDTO;
 import com.example.accountingapp.entity.Company;
 import com.example.accountingapp.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -19,6 +21,12 @@ import java.util.Optional;
 public interface ProductRepository extends JpaRepository<Product,Long> {
     List<Product> findAllByCompany(Company company);
 
+    List<Product> findAllByCompany_Id(Long companyId);
+
+    Slice<Product> findByCompany_IdAndNameContainingIgnoreCaseAndIdGreaterThan(Long companyId, String name, Long id, Pageable pageable);
+
+    Slice<Product> findByCompany_IdAndNameContainingIgnoreCaseAndIdLessThan(Long companyId, String name, Long id, Pageable pageable);
+
     Optional<Product> findById(Long id);
 
     ProductDTO findByDescription(String description);
@@ -34,6 +42,17 @@ public interface ProductRepository extends JpaRepository<Product,Long> {
 
     Optional<Product> findProductById (Long productId);
 
+    //adds the quantities of all lines of an invoice to their products in one statement
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE product p SET qty = p.qty + s.total FROM " +
+            "(SELECT product_id, SUM(qty) AS total FROM invoice_product WHERE invoice_id = ?1 AND is_deleted = false GROUP BY product_id) s " +
+            "WHERE p.id = s.product_id", nativeQuery = true)
+    int addInvoiceQtyToStock(@Param("invoiceId") Long invoiceId);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.qty = p.qty - ?2 WHERE p.id = ?1 AND p.qty >= ?2")
+    int removeFromStock(@Param("id") Long id, @Param("qty") long qty);
+
     @Query(value = "Select * from product where company_id = (select company_id from client_vendor where company_name = ?1)", nativeQuery = true)
     List<Product> findAllProductsByCompanyName(@Param("companyName") String companyName);
 }
@@ -0,0 +1,53 @@
+package com.example.accountingapp.repository;
+
+import com.example.accountingapp.dto.projection.InvoiceTotalsRow;
+import com.example.accountingapp.entity.ProfitLossLedger;
+import com.example.accountingapp.enums.InvoiceType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface ProfitLossLedgerRepository extends JpaRepository<ProfitLossLedger, Long> {
+
+    //one statement for the first and every later delta of a period: two first approvals cannot both insert the row
+    @Modifying
+    @Query(value = "INSERT INTO profit_loss_ledger (company_id, invoice_type, period_year, period_month, total_price, total_tax, total_qty) " +
+            "VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7) " +
+            "ON CONFLICT (company_id, invoice_type, period_year, period_month) DO UPDATE SET " +
+            "total_price = COALESCE(profit_loss_ledger.total_price, 0) + EXCLUDED.total_price, " +
+            "total_tax = COALESCE(profit_loss_ledger.total_tax, 0) + EXCLUDED.total_tax, " +
+            "total_qty = COALESCE(profit_loss_ledger.total_qty, 0) + EXCLUDED.total_qty", nativeQuery = true)
+    int addToPeriod(@Param("companyId") Long companyId, @Param("invoiceType") String invoiceType,
+                    @Param("periodYear") Integer periodYear, @Param("periodMonth") Integer periodMonth,
+                    @Param("price") BigDecimal price, @Param("tax") BigDecimal tax, @Param("qty") Long qty);
+
+    //rebuild(): the lock waits for every transaction that has written a delta and holds back new ones until the rebuild
+    //commits, so the sums below see every committed approval and no delta is applied to rows about to be replaced
+    @Modifying
+    @Query(value = "LOCK TABLE profit_loss_ledger IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM profit_loss_ledger", nativeQuery = true)
+    int deleteAllPeriods();
+
+    //the same sums as migration V4
+    @Modifying
+    @Query(value = "INSERT INTO profit_loss_ledger (company_id, invoice_type, period_year, period_month, total_price, total_tax, total_qty) " +
+            "SELECT v.company_id, v.invoice_type, EXTRACT(YEAR FROM v.invoice_date), EXTRACT(MONTH FROM v.invoice_date), " +
+            "COALESCE(SUM(i.price), 0), COALESCE(SUM(i.tax), 0), COALESCE(SUM(i.qty), 0) " +
+            "FROM invoice_product i JOIN invoice v ON v.id = i.invoice_id " +
+            "WHERE v.invoice_status = 'APPROVED' AND v.is_deleted = false AND i.is_deleted = false " +
+            "GROUP BY v.company_id, v.invoice_type, EXTRACT(YEAR FROM v.invoice_date), EXTRACT(MONTH FROM v.invoice_date)", nativeQuery = true)
+    int insertApprovedPeriods();
+
+    @Query("SELECT l.invoiceType AS invoiceType, SUM(l.totalPrice) AS totalPrice, SUM(l.totalTax) AS totalTax, SUM(l.totalQty) AS totalQty " +
+            "FROM ProfitLossLedger l WHERE l.company.id = ?1 GROUP BY l.invoiceType")
+    List<InvoiceTotalsRow> sumByCompany(@Param("companyId") Long companyId);
+}
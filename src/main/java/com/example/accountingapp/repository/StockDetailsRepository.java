@@ -4,11 +4,15 @@ package com.example.accountingapp.repository;
 import com.example.accountingapp.entity.Product;
 import com.example.accountingapp.entity.StockDetails;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +26,15 @@ public interface StockDetailsRepository extends JpaRepository<StockDetails, Long
 
     @Query(value = "SELECT * FROM stock_details i where i.product_id =?1",nativeQuery = true)
     List<StockDetails> findAllByInvoiceId(@Param("productId") Long productId);
+
+    @Query("SELECT s FROM StockDetails s WHERE s.product.id = ?1 AND s.remainingQuantity > 0 ORDER BY s.iDate, s.id")
+    List<StockDetails> findOpenLotsByProductId(Long productId);
+
+    //FIFO order within each product; the rows are locked in this order, which is the same for every caller
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockDetails s WHERE s.product.id IN ?1 AND s.remainingQuantity > 0 ORDER BY s.product.id, s.iDate, s.id")
+    List<StockDetails> findOpenLotsByProductIdInForUpdate(Collection<Long> productIds);
+
+    @Query(value = "SELECT price FROM stock_details WHERE product_id = ?1 ORDER BY i_date DESC, id DESC LIMIT 1", nativeQuery = true)
+    List<BigDecimal> findLastUnitCost(Long productId);
 }
@@ -0,0 +1,39 @@
+package com.example.accountingapp.repository;
+
+import com.example.accountingapp.entity.StripeEvent;
+import com.example.accountingapp.enums.StripeEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StripeEventRepository extends JpaRepository<StripeEvent, String> {
+
+    //returns 0 when the event was stored before
+    @Modifying
+    @Query(value = "INSERT INTO stripe_event (event_id, event_type, payload, status, attempts, next_attempt_at, received_time) " +
+            "VALUES (?1, ?2, ?3, 'PENDING', 0, ?4, ?4) ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(String eventId, String eventType, String payload, LocalDateTime receivedTime);
+
+    @Query("SELECT e.eventId FROM StripeEvent e WHERE e.status = ?1 AND e.nextAttemptAt <= ?2 ORDER BY e.nextAttemptAt")
+    List<String> findDueIds(StripeEventStatus status, LocalDateTime now, Pageable pageable);
+
+    //takes the event for one attempt; leaseUntil makes it due again should the worker never report back
+    @Modifying
+    @Query("UPDATE StripeEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = ?4 " +
+            "WHERE e.eventId = ?1 AND e.status = ?2 AND e.nextAttemptAt <= ?3")
+    int claim(String eventId, StripeEventStatus status, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE StripeEvent e SET e.status = ?2, e.processedTime = ?3, e.lastError = null WHERE e.eventId = ?1")
+    int markProcessed(String eventId, StripeEventStatus status, LocalDateTime processedTime);
+
+    @Modifying
+    @Query("UPDATE StripeEvent e SET e.status = ?2, e.nextAttemptAt = ?3, e.lastError = ?4 WHERE e.eventId = ?1")
+    int markFailed(String eventId, StripeEventStatus status, LocalDateTime nextAttemptAt, String lastError);
+}
@@ -2,14 +2,29 @@ package com.example.accountingapp.repository;
 
 import com.example.accountingapp.entity.Company;
 import com.example.accountingapp.entity.User;
+import com.example.accountingapp.tenant.TenantContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User,Long> {
     User findByEmail(String email);
     List<User> findAllByCompany(Company company);
 
+    List<User> findAllByCompany_Id(Long companyId);
+
+    Slice<User> findByCompany_IdAndEmailContainingIgnoreCaseAndIdGreaterThan(Long companyId, String email, Long id, Pageable pageable);
+
+    Slice<User> findByCompany_IdAndEmailContainingIgnoreCaseAndIdLessThan(Long companyId, String email, Long id, Pageable pageable);
+
+    @Query("SELECT new com.example.accountingapp.tenant.TenantContext(u.id, c.id, c.title) FROM User u JOIN u.company c WHERE u.email = ?1")
+    Optional<TenantContext> findTenantContextByEmail(@Param("email") String email);
+
 }
@@ -2,10 +2,13 @@ package com.example.accountingapp.service;
 
 import com.example.accountingapp.dto.ClientVendorDTO;
 import com.example.accountingapp.enums.CompanyType;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
 import java.util.List;
 
 public interface ClientVendorService {
     List<ClientVendorDTO> listAllClients();
+    KeysetPage<ClientVendorDTO> listClientsPage(KeysetRequest request);
     ClientVendorDTO findById(Long id);
     void delete(Long id);
     void save(ClientVendorDTO dto);
@@ -0,0 +1,14 @@
+package com.example.accountingapp.service;
+
+import com.example.accountingapp.dto.client.Latest;
+
+import java.util.Map;
+
+public interface CurrencyRateService {
+
+    Latest getLatest();
+
+    void refresh();
+
+    Map<String, Object> getStats();
+}
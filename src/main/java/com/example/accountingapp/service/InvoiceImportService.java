@@ -0,0 +1,12 @@
+package com.example.accountingapp.service;
+
+import com.example.accountingapp.dto.InvoiceImportReport;
+import com.example.accountingapp.imports.ImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface InvoiceImportService {
+
+    InvoiceImportReport importInvoices(ImportFormat format, InputStream in) throws IOException;
+}
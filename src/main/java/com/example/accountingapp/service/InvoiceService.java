@@ -2,6 +2,8 @@ package com.example.accountingapp.service;
 
 import com.example.accountingapp.dto.InvoiceDTO;
 import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -10,6 +12,8 @@ public interface InvoiceService {
 
     List<InvoiceDTO> listAllByInvoiceType(InvoiceType invoiceType);
 
+    KeysetPage<InvoiceDTO> listPageByInvoiceType(InvoiceType invoiceType, KeysetRequest request);
+
     BigDecimal calculateCostByInvoiceID(Long id);
 
     void delete(Long id);
@@ -19,6 +23,8 @@ public interface InvoiceService {
     Long getInvoiceNo(String id);
     void approveInvoice(String invoiceId);
 
+    boolean approveSalesInvoice(String invoiceId);
+
     String findInvoiceName(String invoiceId);
     Long saveAndReturnId(InvoiceDTO invoiceDTO);
 
@@ -30,7 +36,6 @@ public interface InvoiceService {
 
     void enableInvoice(Long id);
 
-    void approvePurchaseInvoice(Long id);
-
-    void addProductToStockByInvoice(Long id);
+    //adds the lines to stock and creates their purchase lots; false if the invoice was already approved
+    boolean approvePurchaseInvoice(Long id);
 }
@@ -12,7 +12,7 @@ import java.util.List;
 public interface PaymentService {
   List<PaymentDTO> listAllPayments();
 
-  List<PaymentDTO> listAllByYear(String year);
+  List<PaymentDTO> listAllByYear(Integer year);
 
   PaymentDTO findById(Long id);
 
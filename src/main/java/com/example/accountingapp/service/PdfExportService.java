@@ -0,0 +1,15 @@
+package com.example.accountingapp.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+public interface PdfExportService {
+
+    //the cached PDF of an approved invoice, rendered on first use; null while the invoice can still change
+    Path findApprovedInvoicePdf(Long invoiceId) throws IOException;
+
+    void writeInvoicePdf(Long invoiceId, OutputStream out) throws IOException;
+
+    void writeReportPdf(OutputStream out) throws IOException;
+}
@@ -1,12 +1,15 @@
 package com.example.accountingapp.service;
 
 import com.example.accountingapp.dto.ProductDTO;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
 
 import java.math.BigInteger;
 import java.util.List;
 
 public interface ProductService {
     List<ProductDTO> listAllProducts();
+    KeysetPage<ProductDTO> listProductsPage(KeysetRequest request);
     ProductDTO findById(Long id);
 
     ProductDTO findByDescription(String id);
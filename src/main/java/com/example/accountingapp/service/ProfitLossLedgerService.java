@@ -0,0 +1,25 @@
+package com.example.accountingapp.service;
+
+import com.example.accountingapp.dto.projection.InvoiceTotalsRow;
+import com.example.accountingapp.enums.InvoiceType;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public interface ProfitLossLedgerService {
+
+    void addInvoice(Long invoiceId);
+
+    void addTotals(Long companyId, InvoiceType invoiceType, int year, int month, BigDecimal price, BigDecimal tax, long qty);
+
+    void removeInvoice(Long invoiceId);
+
+    void removeInvoiceProduct(Long invoiceProductId);
+
+    Map<InvoiceType, InvoiceTotalsRow> totalsByCompany(Long companyId);
+
+    void rebuild();
+
+    List<String> checkConsistency();
+}
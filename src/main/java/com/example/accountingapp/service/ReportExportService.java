@@ -0,0 +1,13 @@
+package com.example.accountingapp.service;
+
+import com.example.accountingapp.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ReportExportService {
+
+    void exportStock(ExportFormat format, OutputStream out) throws IOException;
+
+    void exportProfitLoss(ExportFormat format, OutputStream out) throws IOException;
+}
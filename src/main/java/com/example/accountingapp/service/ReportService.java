@@ -5,6 +5,7 @@ import com.example.accountingapp.dto.ReportDTO;
 import com.example.accountingapp.entity.InvoiceProduct;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -14,6 +15,8 @@ public interface ReportService {
 
     Map<String, BigDecimal> profitLoss();
 
+    Map<String, BigDecimal> profitLoss(LocalDate from, LocalDate to);
+
     Set<ReportDTO> calculateByProducts();
 
     List<InvoiceDTO> findLast3ByCompany();
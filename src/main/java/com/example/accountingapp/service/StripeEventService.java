@@ -0,0 +1,9 @@
+package com.example.accountingapp.service;
+
+public interface StripeEventService {
+
+    //stores a verified event and queues it for processing; false if the event was already received
+    boolean receive(String eventId, String eventType, String payload);
+
+    void process(String eventId);
+}
@@ -3,6 +3,8 @@ package com.example.accountingapp.service;
 import com.example.accountingapp.dto.CompanyDTO;
 import com.example.accountingapp.dto.UserDTO;
 import com.example.accountingapp.entity.Company;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetRequest;
 
 import java.util.List;
 
@@ -10,6 +12,8 @@ public interface UserService {
 
     List<UserDTO> listAllUsers();
 
+    KeysetPage<UserDTO> listUsersPage(KeysetRequest request);
+
     void save(UserDTO dto);
 
     UserDTO update(UserDTO dto);
@@ -1,10 +1,15 @@
 package com.example.accountingapp.service.impl;
 
+import com.example.accountingapp.cache.ReferenceCache;
+import com.example.accountingapp.cache.ReferenceCopies;
+import com.example.accountingapp.cache.ReferenceDataCaches;
 import com.example.accountingapp.dto.CategoryDTO;
 import com.example.accountingapp.entity.Category;
 import com.example.accountingapp.mapper.MapperUtil;
 import com.example.accountingapp.repository.CategoryRepository;
 import com.example.accountingapp.service.CategoryService;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,22 +20,31 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final MapperUtil mapperUtil;
+    private final ReferenceCache<Long, CategoryDTO> categoriesById;
+    private final ReferenceCache<String, List<CategoryDTO>> categoryLists;
+    private final ResourceVersions resourceVersions;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, MapperUtil mapperUtil) {
+    public CategoryServiceImpl(CategoryRepository categoryRepository, MapperUtil mapperUtil, ReferenceDataCaches referenceDataCaches, ResourceVersions resourceVersions) {
         this.categoryRepository = categoryRepository;
         this.mapperUtil = mapperUtil;
+        this.categoriesById = referenceDataCaches.create("categoriesById", ReferenceCopies::category);
+        this.categoryLists = referenceDataCaches.create("categoryLists", ReferenceCopies.listOf(ReferenceCopies::category));
+        this.resourceVersions = resourceVersions;
     }
 
     @Override
     public List<CategoryDTO> listAllCategories() {
         // TODO: Filter by Company
-        return categoryRepository.findAll().stream().map(category -> mapperUtil.convert(category, new CategoryDTO())).collect(Collectors.toList());
+        return categoryLists.get("all", key -> categoryRepository.findAll().stream()
+                .map(category -> mapperUtil.convert(category, new CategoryDTO())).collect(Collectors.toUnmodifiableList()));
     }
 
     @Override
     public void save(CategoryDTO dto) {
         dto.setEnabled(true);
         categoryRepository.save(mapperUtil.convert(dto, new Category()));
+        categoryLists.invalidateAll();
+        resourceVersions.changedForAllTenants(VersionedResource.CATEGORIES);
     }
 
     @Override
@@ -39,13 +53,14 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(dto.getId()).get();
         category.setDescription(dto.getDescription());
         categoryRepository.save(category);
+        evict(category.getId());
 
         return dto;
     }
 
     @Override
     public CategoryDTO findById(Long id) {
-        return mapperUtil.convert(categoryRepository.findById(id).get(), new CategoryDTO());
+        return categoriesById.get(id, key -> mapperUtil.convert(categoryRepository.findById(key).get(), new CategoryDTO()));
     }
 
     @Override
@@ -53,5 +68,12 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = categoryRepository.findById(id).get();
         category.setIsDeleted(true);
         categoryRepository.save(category);
+        evict(id);
+    }
+
+    private void evict(Long id) {
+        categoriesById.invalidate(id);
+        categoryLists.invalidateAll();
+        resourceVersions.changedForAllTenants(VersionedResource.CATEGORIES);
     }
 }
@@ -1,11 +1,19 @@
 package com.example.accountingapp.service.impl;
 
+import com.example.accountingapp.cache.ReferenceCache;
+import com.example.accountingapp.cache.ReferenceCopies;
+import com.example.accountingapp.cache.ReferenceDataCaches;
 import com.example.accountingapp.dto.ClientVendorDTO;
 import com.example.accountingapp.enums.CompanyType;
 import com.example.accountingapp.entity.ClientVendor;
 import com.example.accountingapp.mapper.MapperUtil;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetPaginator;
+import com.example.accountingapp.pagination.KeysetRequest;
 import com.example.accountingapp.repository.ClientVendorRepository;
 import com.example.accountingapp.service.ClientVendorService;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,10 +24,16 @@ public class ClientVendorServiceImpl implements ClientVendorService {
 
     private final ClientVendorRepository clientVendorRepository;
     private final MapperUtil mapperUtil;
+    private final ReferenceCache<Long, ClientVendorDTO> clientVendorsById;
+    private final ReferenceCache<CompanyType, List<ClientVendorDTO>> clientVendorsByType;
+    private final ResourceVersions resourceVersions;
 
-    public ClientVendorServiceImpl(ClientVendorRepository clientVendorRepository, MapperUtil mapperUtil) {
+    public ClientVendorServiceImpl(ClientVendorRepository clientVendorRepository, MapperUtil mapperUtil, ReferenceDataCaches referenceDataCaches, ResourceVersions resourceVersions) {
         this.clientVendorRepository = clientVendorRepository;
         this.mapperUtil = mapperUtil;
+        this.clientVendorsById = referenceDataCaches.create("clientVendorsById", ReferenceCopies::clientVendor);
+        this.clientVendorsByType = referenceDataCaches.create("clientVendorsByType", ReferenceCopies.listOf(ReferenceCopies::clientVendor));
+        this.resourceVersions = resourceVersions;
     }
 
     @Override
@@ -27,9 +41,18 @@ public class ClientVendorServiceImpl implements ClientVendorService {
         return clientVendorRepository.findAllBy().stream().map(p -> mapperUtil.convert(p, new ClientVendorDTO())).collect(Collectors.toList());
     }
 
+    @Override
+    public KeysetPage<ClientVendorDTO> listClientsPage(KeysetRequest request) {
+        return KeysetPaginator.fetch(request,
+                (id, pageable) -> clientVendorRepository.findByCompanyNameContainingIgnoreCaseAndIdGreaterThan(request.getFilterOrEmpty(), id, pageable),
+                (id, pageable) -> clientVendorRepository.findByCompanyNameContainingIgnoreCaseAndIdLessThan(request.getFilterOrEmpty(), id, pageable),
+                ClientVendor::getId)
+                .map(p -> mapperUtil.convert(p, new ClientVendorDTO()));
+    }
+
     @Override
     public ClientVendorDTO findById(Long id) {
-        return mapperUtil.convert(clientVendorRepository.findById(id), new ClientVendorDTO());
+        return clientVendorsById.get(id, key -> mapperUtil.convert(clientVendorRepository.findById(key), new ClientVendorDTO()));
     }
 
     @Override
@@ -37,12 +60,15 @@ public class ClientVendorServiceImpl implements ClientVendorService {
         ClientVendor clientVendor = clientVendorRepository.findById(id).get();
         clientVendor.setIsDeleted(true);
         clientVendorRepository.save(clientVendor);
+        evict(id);
     }
 
     @Override
     public void save(ClientVendorDTO dto) {
         dto.setEnabled(true);
         clientVendorRepository.save(mapperUtil.convert(dto, new ClientVendor()));
+        clientVendorsByType.invalidateAll();
+        resourceVersions.changedForAllTenants(VersionedResource.CLIENT_VENDORS);
     }
 
     @Override
@@ -51,6 +77,7 @@ public class ClientVendorServiceImpl implements ClientVendorService {
         ClientVendor convertedClient = mapperUtil.convert(dto,new ClientVendor());
         convertedClient.setId(client.getId());
         clientVendorRepository.save(convertedClient);
+        evict(client.getId());
         return findByEmail(dto.getEmail());
     }
 
@@ -62,11 +89,10 @@ public class ClientVendorServiceImpl implements ClientVendorService {
 
     @Override
     public List<ClientVendorDTO> findAllByCompanyType(CompanyType companyType) {
-        return clientVendorRepository.findAllByType (companyType)
+        return clientVendorsByType.get(companyType, type -> clientVendorRepository.findAllByType(type)
                 .stream()
                 .map(p -> mapperUtil.convert(p, new ClientVendorDTO()))
-                .collect(Collectors.toList());
-
+                .collect(Collectors.toUnmodifiableList()));
     }
 
     @Override
@@ -74,5 +100,9 @@ public class ClientVendorServiceImpl implements ClientVendorService {
         return clientVendorRepository.findClientNameById(id);
     }
 
-
-}
\ No newline at end of file
+    private void evict(Long id) {
+        clientVendorsById.invalidate(id);
+        clientVendorsByType.invalidateAll();
+        resourceVersions.changedForAllTenants(VersionedResource.CLIENT_VENDORS);
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.accountingapp.service.impl;
 
+import com.example.accountingapp.cache.ReferenceCache;
+import com.example.accountingapp.cache.ReferenceCopies;
+import com.example.accountingapp.cache.ReferenceDataCaches;
 import com.example.accountingapp.dto.CompanyDTO;
 import com.example.accountingapp.entity.Company;
 import com.example.accountingapp.enums.CompanyStatus;
 import com.example.accountingapp.mapper.MapperUtil;
 import com.example.accountingapp.repository.CompanyRepository;
 import com.example.accountingapp.service.CompanyService;
+import com.example.accountingapp.tenant.TenantContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,20 +19,27 @@ import java.util.stream.Collectors;
 public class CompanyServiceImpl implements CompanyService {
     private final CompanyRepository companyRepository;
     private final MapperUtil mapperUtil;
+    private final ReferenceCache<Long, CompanyDTO> companiesById;
+    private final ReferenceCache<String, List<CompanyDTO>> companyLists;
+    private final TenantContextHolder tenantContextHolder;
 
-    public CompanyServiceImpl(CompanyRepository companyRepository, MapperUtil mapperUtil) {
+    public CompanyServiceImpl(CompanyRepository companyRepository, MapperUtil mapperUtil, ReferenceDataCaches referenceDataCaches, TenantContextHolder tenantContextHolder) {
         this.companyRepository = companyRepository;
         this.mapperUtil = mapperUtil;
+        this.companiesById = referenceDataCaches.create("companiesById", ReferenceCopies::company);
+        this.companyLists = referenceDataCaches.create("companyLists", ReferenceCopies.listOf(ReferenceCopies::company));
+        this.tenantContextHolder = tenantContextHolder;
     }
 
     @Override
     public List<CompanyDTO> listAllCompanies() {
-        return companyRepository.findAll().stream().map(company -> mapperUtil.convert(company, new CompanyDTO())).collect(Collectors.toList());
+        return companyLists.get("all", key -> companyRepository.findAll().stream()
+                .map(company -> mapperUtil.convert(company, new CompanyDTO())).collect(Collectors.toUnmodifiableList()));
     }
 
     @Override
     public CompanyDTO findById(Long id) {
-        return mapperUtil.convert(companyRepository.findById(id).get(), new CompanyDTO());
+        return companiesById.get(id, key -> mapperUtil.convert(companyRepository.findById(key).get(), new CompanyDTO()));
     }
 
 
@@ -38,7 +49,7 @@ public class CompanyServiceImpl implements CompanyService {
         company.setEnabled(true);
         company.setCompanyStatus(CompanyStatus.ENABLED);
         companyRepository.save(mapperUtil.convert(company, new Company()));
-
+        companyLists.invalidateAll();
 
     }
 
@@ -49,6 +60,7 @@ public class CompanyServiceImpl implements CompanyService {
         convertedCompany.setId(company.getId());
         convertedCompany.setCompanyStatus(company.getCompanyStatus());
         companyRepository.save(convertedCompany);
+        evict(company.getId());
 
         return findByEmail(dto.getEmail());
     }
@@ -64,6 +76,7 @@ public class CompanyServiceImpl implements CompanyService {
         Company company = companyRepository.findById(id).get();
         company.setCompanyStatus(CompanyStatus.ENABLED);
         companyRepository.save(company);
+        evict(id);
 
     }
 
@@ -72,9 +85,14 @@ public class CompanyServiceImpl implements CompanyService {
         Company company = companyRepository.findById(id).get();
         company.setCompanyStatus(CompanyStatus.DISABLED);
         companyRepository.save(company);
-
+        evict(id);
     }
 
-
+    private void evict(Long id) {
+        companiesById.invalidate(id);
+        companyLists.invalidateAll();
+        //the tenant carries the company title
+        tenantContextHolder.evictResolved();
+    }
 
 }
@@ -0,0 +1,111 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.client.CurrencyClient;
+import com.example.accountingapp.dto.client.Latest;
+import com.example.accountingapp.dto.client.RatesTable;
+import com.example.accountingapp.service.CurrencyRateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+//Keeps the last good frankfurter.app response in memory. A scheduled job refreshes it in the background
+//and a failed refresh keeps serving the stale rates, so page views never wait on the remote call once warm.
+//At most one fetch runs at a time; callers arriving during it share its result instead of starting their own.
+@Service
+public class CurrencyRateServiceImpl implements CurrencyRateService {
+
+    private final Logger logger = LoggerFactory.getLogger(CurrencyRateServiceImpl.class);
+
+    private final CurrencyClient currencyClient;
+
+    private final AtomicReference<Latest> latest = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<Latest>> inFlight = new AtomicReference<>();
+    private final AtomicLong lastRefreshMillis = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    //the Feign client is built on the first refresh, which runs on the scheduler thread after startup
+    public CurrencyRateServiceImpl(@Lazy CurrencyClient currencyClient) {
+        this.currencyClient = currencyClient;
+    }
+
+    @Override
+    public Latest getLatest() {
+        Latest cached = latest.get();
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        //cold cache: only until the first scheduled refresh has succeeded
+        misses.incrementAndGet();
+        Latest loaded = load();
+        return loaded != null ? loaded : emptyLatest();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${currency.rates.refresh-interval-ms:3600000}")
+    public void refresh() {
+        load();
+    }
+
+    //single-flight: the first caller fetches on its own thread, the others wait for that fetch
+    private Latest load() {
+        CompletableFuture<Latest> mine = new CompletableFuture<>();
+        CompletableFuture<Latest> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) {
+            return running.join();
+        }
+        Latest result = latest.get();
+        try {
+            result = fetch();
+        } finally {
+            inFlight.set(null);
+            mine.complete(result);
+        }
+        return result;
+    }
+
+    //the fetched rates, or the last good ones (null while cold) when the remote call fails
+    private Latest fetch() {
+        try {
+            Latest fetched = currencyClient.getCurrency();
+            if (fetched != null && fetched.getRates() != null) {
+                latest.set(fetched);
+                lastRefreshMillis.set(System.currentTimeMillis());
+                refreshes.incrementAndGet();
+            }
+        } catch (RuntimeException e) {
+            refreshFailures.incrementAndGet();
+            logger.warn("Currency rates refresh failed, serving cached rates: {}", e.getMessage());
+        }
+        return latest.get();
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("refreshFailures", refreshFailures.get());
+        long last = lastRefreshMillis.get();
+        stats.put("refreshAgeMillis", last == 0 ? -1 : System.currentTimeMillis() - last);
+        return stats;
+    }
+
+    private Latest emptyLatest() {
+        Latest empty = new Latest();
+        empty.setRates(new RatesTable());
+        return empty;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.entity.StockDetails;
+import com.example.accountingapp.repository.StockDetailsRepository;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+//Costs sold units against the open purchase lots (stock_details rows with remaining quantity), oldest lot first.
+//lockOpenLots() reads the open lots of all products of an invoice in one query and locks them until the caller's
+//transaction ends, so a concurrent sale of the same product waits and then sees the committed remaining quantities.
+//The queues live only as long as that transaction: nothing is shared, so a rollback leaves nothing to repair.
+@Component
+public class FifoCostEngine {
+
+    private final StockDetailsRepository stockDetailsRepository;
+
+    public FifoCostEngine(StockDetailsRepository stockDetailsRepository) {
+        this.stockDetailsRepository = stockDetailsRepository;
+    }
+
+    //must run inside the caller's transaction; products are locked in id order, so two invoices cannot deadlock on them
+    public Costing lockOpenLots(Collection<Long> productIds) {
+        Costing costing = new Costing();
+        if (productIds.isEmpty()) return costing;
+        for (StockDetails each : stockDetailsRepository.findOpenLotsByProductIdInForUpdate(new TreeSet<>(productIds))) {
+            costing.queue(each.getProduct().getId()).addLast(each);
+        }
+        return costing;
+    }
+
+    //the FIFO queues of one approval; consume() changes the lot entities, changedLots() lists them for one batch save
+    public class Costing {
+        private final Map<Long, Deque<StockDetails>> queues = new HashMap<>();
+        private final Map<Long, BigDecimal> lastUnitCosts = new HashMap<>();
+        //keyed by lot id: StockDetails hashes its fields, remaining quantity included
+        private final Map<Long, StockDetails> changed = new LinkedHashMap<>();
+
+        private Costing() {
+        }
+
+        public BigDecimal consume(Long productId, long qty) {
+            Deque<StockDetails> lots = queue(productId);
+            BigDecimal cost = BigDecimal.ZERO;
+            long toTake = qty;
+            while (toTake > 0 && !lots.isEmpty()) {
+                StockDetails oldest = lots.peekFirst();
+                long remaining = oldest.getRemainingQuantity().longValue();
+                long taken = Math.min(remaining, toTake);
+                oldest.setRemainingQuantity(BigInteger.valueOf(remaining - taken));
+                toTake -= taken;
+                cost = cost.add(oldest.getPrice().multiply(BigDecimal.valueOf(taken)));
+                lastUnitCosts.put(productId, oldest.getPrice());
+                changed.put(oldest.getId(), oldest);
+                if (remaining == taken) lots.pollFirst();
+            }
+            //stock recorded without purchase lots (seed data, manual qty edits) is costed at the last known lot price
+            if (toTake > 0) cost = cost.add(lastUnitCost(productId).multiply(BigDecimal.valueOf(toTake)));
+            return cost;
+        }
+
+        public List<StockDetails> changedLots() {
+            return new ArrayList<>(changed.values());
+        }
+
+        private Deque<StockDetails> queue(Long productId) {
+            return queues.computeIfAbsent(productId, id -> new ArrayDeque<>());
+        }
+
+        private BigDecimal lastUnitCost(Long productId) {
+            return lastUnitCosts.computeIfAbsent(productId, id ->
+                    stockDetailsRepository.findLastUnitCost(id).stream().findFirst().orElse(BigDecimal.ZERO));
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.InvoiceImportReport;
+import com.example.accountingapp.entity.ClientVendor;
+import com.example.accountingapp.entity.Product;
+import com.example.accountingapp.enums.CompanyType;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.imports.ImportFormat;
+import com.example.accountingapp.imports.ImportedInvoice;
+import com.example.accountingapp.imports.InvoiceReader;
+import com.example.accountingapp.repository.ClientVendorRepository;
+import com.example.accountingapp.repository.ProductRepository;
+import com.example.accountingapp.service.InvoiceImportService;
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import com.example.accountingapp.tenant.TenantContextHolder;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Imports invoices in two stages. The request thread parses and checks one invoice at a time, resolving clients/vendors
+//and products from maps loaded once per import, and hands chunks of about invoice-import.chunk-lines lines to a writer thread.
+//The writer stores each chunk in a transaction of its own: one INSERT for its invoices, which skips numbers that are
+//already taken, even by another import committing at the same time, and JDBC batch inserts for the lines. The queue between them holds
+//invoice-import.queue-chunks chunks: when the database falls behind, the reader waits and stops reading the upload.
+//Imported invoices are enabled right away. APPROVED ones are added to the profit/loss ledger but do not change stock,
+//FIFO lots or the profit of sales lines: historical goods are expected to be in Product.qty already.
+@Service
+public class InvoiceImportServiceImpl implements InvoiceImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceImportServiceImpl.class);
+
+    private static final String NEXT_INVOICE_IDS = "SELECT nextval('invoice_id_seq') FROM generate_series(1, ?)";
+    //invoice numbers that already exist, deleted invoices included, are skipped by the unique constraint and not returned
+    private static final String INSERT_INVOICES = "INSERT INTO invoice (id, created_by, created_time, updated_by, updated_time, is_deleted, " +
+            "invoice_number, invoice_status, invoice_type, invoice_date, sptable_id, company_id, enabled) " +
+            "SELECT r.id, 1, ?, 1, ?, false, r.invoice_number, r.invoice_status, r.invoice_type, r.invoice_date, r.sptable_id, ?, true " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::varchar[], ?::date[], ?::bigint[]) " +
+            "AS r (id, invoice_number, invoice_status, invoice_type, invoice_date, sptable_id) " +
+            "ON CONFLICT (invoice_number) DO NOTHING RETURNING invoice_number";
+    private static final String INSERT_LINE = "INSERT INTO invoice_product (created_by, created_time, updated_by, updated_time, is_deleted, " +
+            "name, qty, price, tax, profit, enabled, product_id, invoice_id) " +
+            "VALUES (1, ?, 1, ?, false, ?, ?, ?, ?, ?, true, ?, ?)";
+    private static final Pattern NUMBERED = Pattern.compile("([SP])-INV(\\d{1,18})");
+
+    //marks the end of the input for the writer; compared by identity
+    private static final List<InvoiceRow> END = Collections.emptyList();
+
+    private final ClientVendorRepository clientVendorRepository;
+    private final ProductRepository productRepository;
+    private final ProfitLossLedgerService profitLossLedgerService;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final TenantContextHolder tenantContextHolder;
+    private final ResourceVersions resourceVersions;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final ThreadPoolTaskExecutor invoiceImportExecutor;
+    private final int chunkLines;
+    private final int queueChunks;
+    private final int maxReportedErrors;
+
+    public InvoiceImportServiceImpl(ClientVendorRepository clientVendorRepository, ProductRepository productRepository,
+                                    ProfitLossLedgerService profitLossLedgerService,
+                                    InvoiceNumberAllocator invoiceNumberAllocator, TenantContextHolder tenantContextHolder,
+                                    ResourceVersions resourceVersions, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                    @Qualifier("invoiceImportExecutor") ThreadPoolTaskExecutor invoiceImportExecutor,
+                                    @Value("${invoice-import.chunk-lines:1000}") int chunkLines,
+                                    @Value("${invoice-import.queue-chunks:4}") int queueChunks,
+                                    @Value("${invoice-import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.clientVendorRepository = clientVendorRepository;
+        this.productRepository = productRepository;
+        this.profitLossLedgerService = profitLossLedgerService;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.tenantContextHolder = tenantContextHolder;
+        this.resourceVersions = resourceVersions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.invoiceImportExecutor = invoiceImportExecutor;
+        this.chunkLines = chunkLines;
+        this.queueChunks = queueChunks;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public InvoiceImportReport importInvoices(ImportFormat format, InputStream in) throws IOException {
+        Long companyId = tenantContextHolder.currentCompanyId();
+        Lookups lookups = new Lookups(clientVendorRepository.findAllByCompany_Id(companyId), productRepository.findAllByCompany_Id(companyId));
+        InvoiceImportReport report = new InvoiceImportReport(maxReportedErrors);
+        BlockingQueue<List<InvoiceRow>> queue = new ArrayBlockingQueue<>(queueChunks);
+        Future<?> writer = invoiceImportExecutor.submit(() -> drain(queue, companyId, report));
+
+        long start = System.currentTimeMillis();
+        try (InvoiceReader reader = format.open(in)) {
+            Set<String> seenNumbers = new HashSet<>();
+            List<InvoiceRow> chunk = new ArrayList<>();
+            int lines = 0;
+            ImportedInvoice imported;
+            while (!writer.isDone() && (imported = reader.next()) != null) {
+                InvoiceRow row = check(imported, lookups, seenNumbers, report);
+                if (row == null) continue;
+                chunk.add(row);
+                lines += row.lines.size();
+                if (lines >= chunkLines) {
+                    hand(queue, chunk, writer);
+                    chunk = new ArrayList<>();
+                    lines = 0;
+                }
+            }
+            if (!chunk.isEmpty()) hand(queue, chunk, writer);
+        } catch (IllegalArgumentException e) {
+            report.aborted(e.getMessage());
+        } finally {
+            hand(queue, END, writer);
+        }
+
+        await(writer);
+        logger.info("Imported {} invoices with {} lines in {} ms, {} rejected", report.getInvoicesImported(), report.getLinesImported(),
+                System.currentTimeMillis() - start, report.getInvoicesRejected());
+        return report;
+    }
+
+    //blocks while the queue is full; gives up when the writer has stopped, await() then reports why
+    private void hand(BlockingQueue<List<InvoiceRow>> queue, List<InvoiceRow> chunk, Future<?> writer) {
+        try {
+            while (!queue.offer(chunk, 1, TimeUnit.SECONDS)) {
+                if (writer.isDone()) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            throw new IllegalStateException("Invoice import was interrupted", e);
+        }
+    }
+
+    private void await(Future<?> writer) {
+        try {
+            writer.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Invoice import failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            throw new IllegalStateException("Invoice import was interrupted", e);
+        }
+    }
+
+    private void drain(BlockingQueue<List<InvoiceRow>> queue, Long companyId, InvoiceImportReport report) {
+        Map<InvoiceType, Long> highestNumbers = new EnumMap<>(InvoiceType.class);
+        try {
+            List<InvoiceRow> chunk;
+            while ((chunk = queue.take()) != END) {
+                write(chunk, companyId, report, highestNumbers);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            highestNumbers.forEach(invoiceNumberAllocator::skipPast);
+        }
+    }
+
+    private void write(List<InvoiceRow> chunk, Long companyId, InvoiceImportReport report, Map<InvoiceType, Long> highestNumbers) {
+        List<InvoiceRow> stored = chunkTransaction.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(NEXT_INVOICE_IDS, Long.class, chunk.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            //the unique constraint decides which numbers are new, in the same statement that inserts them
+            Set<String> inserted = new HashSet<>(jdbcTemplate.query(
+                    con -> insertInvoices(con, chunk, ids, now, companyId), (rs, rowNum) -> rs.getString(1)));
+
+            List<InvoiceRow> accepted = new ArrayList<>();
+            List<Object[]> lines = new ArrayList<>();
+            Map<String, PeriodTotals> ledger = new HashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                InvoiceRow row = chunk.get(i);
+                if (!inserted.contains(row.invoiceNumber)) continue;
+                accepted.add(row);
+                BigDecimal profit = row.invoiceType == InvoiceType.PURCHASE ? BigDecimal.ZERO : null;
+                for (LineRow line : row.lines) {
+                    lines.add(new Object[]{now, now, line.productName, line.qty, line.price, line.tax, profit, line.productId, ids.get(i)});
+                }
+                if (row.status == InvoiceStatus.APPROVED) {
+                    ledger.computeIfAbsent(row.invoiceType + ":" + row.invoiceDate.getYear() + "-" + row.invoiceDate.getMonthValue(),
+                            k -> new PeriodTotals(row.invoiceType, row.invoiceDate)).add(row.lines);
+                }
+            }
+            if (accepted.isEmpty()) return accepted;
+
+            jdbcTemplate.batchUpdate(INSERT_LINE, lines);
+            for (PeriodTotals each : ledger.values()) {
+                profitLossLedgerService.addTotals(companyId, each.invoiceType, each.year, each.month, each.price, each.tax, each.qty);
+            }
+            resourceVersions.changed(companyId, VersionedResource.INVOICES);
+            return accepted;
+        });
+
+        //reported once the chunk has committed, so a rolled back chunk reports nothing
+        Set<InvoiceRow> storedRows = Collections.newSetFromMap(new IdentityHashMap<>());
+        storedRows.addAll(stored);
+        int lineCount = 0;
+        for (InvoiceRow row : chunk) {
+            if (!storedRows.contains(row)) {
+                report.rejected(Collections.singletonList(
+                        new InvoiceImportReport.RowError(row.row, row.invoiceNumber, "invoice number already exists")));
+                continue;
+            }
+            lineCount += row.lines.size();
+            Matcher matcher = NUMBERED.matcher(row.invoiceNumber);
+            if (matcher.matches()) {
+                InvoiceType numberType = matcher.group(1).equals("S") ? InvoiceType.SALE : InvoiceType.PURCHASE;
+                highestNumbers.merge(numberType, Long.parseLong(matcher.group(2)), Math::max);
+            }
+        }
+        report.imported(stored.size(), lineCount);
+    }
+
+    //one INSERT ... SELECT FROM unnest() for the whole chunk; returns the numbers that were not taken yet
+    private static PreparedStatement insertInvoices(Connection con, List<InvoiceRow> chunk, List<Long> ids, Timestamp now, Long companyId) throws SQLException {
+        int size = chunk.size();
+        String[] numbers = new String[size];
+        String[] statuses = new String[size];
+        String[] types = new String[size];
+        Date[] dates = new Date[size];
+        Long[] clientVendors = new Long[size];
+        for (int i = 0; i < size; i++) {
+            InvoiceRow row = chunk.get(i);
+            numbers[i] = row.invoiceNumber;
+            statuses[i] = row.status.name();
+            types[i] = row.invoiceType.name();
+            dates[i] = Date.valueOf(row.invoiceDate);
+            clientVendors[i] = row.clientVendorId;
+        }
+        PreparedStatement statement = con.prepareStatement(INSERT_INVOICES);
+        statement.setTimestamp(1, now);
+        statement.setTimestamp(2, now);
+        statement.setLong(3, companyId);
+        statement.setArray(4, con.createArrayOf("bigint", ids.toArray()));
+        statement.setArray(5, con.createArrayOf("varchar", numbers));
+        statement.setArray(6, con.createArrayOf("varchar", statuses));
+        statement.setArray(7, con.createArrayOf("varchar", types));
+        statement.setArray(8, con.createArrayOf("date", dates));
+        statement.setArray(9, con.createArrayOf("bigint", clientVendors));
+        return statement;
+    }
+
+    //returns null and reports every problem of the invoice when any part of it is unusable
+    private InvoiceRow check(ImportedInvoice imported, Lookups lookups, Set<String> seenNumbers, InvoiceImportReport report) {
+        List<InvoiceImportReport.RowError> errors = new ArrayList<>();
+        String invoiceNumber = imported.getInvoiceNumber();
+        int row = imported.getRow();
+
+        if (invoiceNumber == null || invoiceNumber.isBlank()) {
+            errors.add(new InvoiceImportReport.RowError(row, null, "invoice number is missing"));
+        } else if (invoiceNumber.length() > 255) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "invoice number is longer than 255 characters"));
+        } else if (!seenNumbers.add(invoiceNumber)) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "invoice number appears more than once in the file"));
+        }
+        InvoiceType invoiceType = parseEnum(InvoiceType.class, imported.getInvoiceType(), null);
+        if (invoiceType == null) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "invoice type must be PURCHASE or SALE, was " + imported.getInvoiceType()));
+        }
+        InvoiceStatus status = parseEnum(InvoiceStatus.class, imported.getStatus(), InvoiceStatus.PENDING);
+        if (status == null) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "status must be PENDING or APPROVED, was " + imported.getStatus()));
+        }
+        LocalDate invoiceDate = parseDate(imported.getInvoiceDate());
+        if (invoiceDate == null) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "invoice date must be given as yyyy-MM-dd, was " + imported.getInvoiceDate()));
+        }
+        ClientVendor clientVendor = lookups.clientVendor(imported.getClientVendor());
+        if (clientVendor == null) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "unknown or ambiguous client/vendor " + imported.getClientVendor()));
+        } else if (invoiceType != null && clientVendor.getType() != (invoiceType == InvoiceType.SALE ? CompanyType.CLIENT : CompanyType.VENDOR)) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, imported.getClientVendor() + " is not a "
+                    + (invoiceType == InvoiceType.SALE ? "client" : "vendor")));
+        }
+
+        List<LineRow> lines = new ArrayList<>();
+        List<ImportedInvoice.ImportedLine> importedLines = imported.getLines() == null ? Collections.emptyList() : imported.getLines();
+        if (importedLines.isEmpty()) {
+            errors.add(new InvoiceImportReport.RowError(row, invoiceNumber, "invoice has no lines"));
+        }
+        for (int i = 0; i < importedLines.size(); i++) {
+            ImportedInvoice.ImportedLine each = importedLines.get(i);
+            String at = "line " + (i + 1) + ": ";
+            Product product = lookups.product(each.getProduct());
+            Integer qty = parseQty(each.getQty());
+            BigDecimal price = parseAmount(each.getPrice(), null);
+            BigDecimal tax = parseAmount(each.getTax(), product == null || product.getTax() == null ? BigDecimal.ZERO : new BigDecimal(product.getTax()));
+            if (product == null) {
+                errors.add(new InvoiceImportReport.RowError(each.getRow(), invoiceNumber, at + "unknown or ambiguous product " + each.getProduct()));
+            }
+            if (qty == null) {
+                errors.add(new InvoiceImportReport.RowError(each.getRow(), invoiceNumber, at + "quantity must be a whole number above 0, was " + each.getQty()));
+            }
+            if (price == null) {
+                errors.add(new InvoiceImportReport.RowError(each.getRow(), invoiceNumber, at + "price must be an amount of 0 or more, was " + each.getPrice()));
+            }
+            if (tax == null) {
+                errors.add(new InvoiceImportReport.RowError(each.getRow(), invoiceNumber, at + "tax must be a percentage of 0 or more, was " + each.getTax()));
+            }
+            if (product != null && qty != null && price != null && tax != null) {
+                lines.add(new LineRow(product.getId(), product.getName(), qty, price, tax));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            report.rejected(errors);
+            return null;
+        }
+        return new InvoiceRow(row, invoiceNumber, invoiceType, status, invoiceDate, clientVendor.getId(), lines);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, E whenMissing) {
+        if (value == null || value.isBlank()) return whenMissing;
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) return null;
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseQty(String value) {
+        if (value == null) return null;
+        try {
+            int qty = Integer.parseInt(value.trim());
+            return qty > 0 ? qty : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //amounts are stored as NUMERIC(19, 2)
+    private static BigDecimal parseAmount(String value, BigDecimal whenMissing) {
+        if (value == null || value.isBlank()) return whenMissing;
+        try {
+            BigDecimal amount = new BigDecimal(value.trim()).setScale(2, RoundingMode.HALF_UP);
+            return amount.signum() >= 0 && amount.precision() <= 19 ? amount : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //the tenant's clients/vendors and products by lower-cased name; a name used twice resolves to nothing
+    private static class Lookups {
+        private final Map<String, ClientVendor> clientVendors = new HashMap<>();
+        private final Map<String, Product> products = new HashMap<>();
+
+        Lookups(List<ClientVendor> clientVendorList, List<Product> productList) {
+            clientVendorList.forEach(each -> add(clientVendors, each.getCompanyName(), each));
+            productList.forEach(each -> add(products, each.getName(), each));
+        }
+
+        ClientVendor clientVendor(String name) {
+            return name == null ? null : clientVendors.get(key(name));
+        }
+
+        Product product(String name) {
+            return name == null ? null : products.get(key(name));
+        }
+
+        //an ambiguous name stays in the map with a null value, so a third entry of that name cannot take it over
+        private static <T> void add(Map<String, T> map, String name, T value) {
+            if (name == null) return;
+            String key = key(name);
+            map.put(key, map.containsKey(key) ? null : value);
+        }
+
+        private static String key(String name) {
+            return name.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static class InvoiceRow {
+        private final int row;
+        private final String invoiceNumber;
+        private final InvoiceType invoiceType;
+        private final InvoiceStatus status;
+        private final LocalDate invoiceDate;
+        private final Long clientVendorId;
+        private final List<LineRow> lines;
+
+        InvoiceRow(int row, String invoiceNumber, InvoiceType invoiceType, InvoiceStatus status, LocalDate invoiceDate, Long clientVendorId, List<LineRow> lines) {
+            this.row = row;
+            this.invoiceNumber = invoiceNumber;
+            this.invoiceType = invoiceType;
+            this.status = status;
+            this.invoiceDate = invoiceDate;
+            this.clientVendorId = clientVendorId;
+            this.lines = lines;
+        }
+    }
+
+    private static class LineRow {
+        private final Long productId;
+        private final String productName;
+        private final int qty;
+        private final BigDecimal price;
+        private final BigDecimal tax;
+
+        LineRow(Long productId, String productName, int qty, BigDecimal price, BigDecimal tax) {
+            this.productId = productId;
+            this.productName = productName;
+            this.qty = qty;
+            this.price = price;
+            this.tax = tax;
+        }
+    }
+
+    //the ledger sums the plain price, tax and qty columns of the lines, see ProfitLossLedgerServiceImpl.rebuild()
+    private static class PeriodTotals {
+        private final InvoiceType invoiceType;
+        private final int year;
+        private final int month;
+        private BigDecimal price = BigDecimal.ZERO;
+        private BigDecimal tax = BigDecimal.ZERO;
+        private long qty;
+
+        PeriodTotals(InvoiceType invoiceType, LocalDate invoiceDate) {
+            this.invoiceType = invoiceType;
+            this.year = invoiceDate.getYear();
+            this.month = invoiceDate.getMonthValue();
+        }
+
+        void add(List<LineRow> lines) {
+            for (LineRow each : lines) {
+                price = price.add(each.price);
+                tax = tax.add(each.tax);
+                qty += each.qty;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.repository.InvoiceRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+//Hands out invoice numbers from blocks reserved with one nextval() per BLOCK_SIZE numbers.
+//Numbers left in a block on shutdown are skipped, so the sequence can have gaps but never repeats.
+//Blocks belong to one node. Nodes drawing from the same sequence never hand out the same number, but skipPast() only
+//knows this node's block: see there before importing invoices into a deployment of several nodes.
+@Component
+public class InvoiceNumberAllocator {
+
+    //must match INCREMENT BY of the invoice number sequences in V1__create_schema.sql
+    static final int BLOCK_SIZE = 50;
+
+    private final InvoiceRepository invoiceRepository;
+    private final Map<InvoiceType, Block> blocks = new EnumMap<>(InvoiceType.class);
+
+    public InvoiceNumberAllocator(InvoiceRepository invoiceRepository) {
+        this.invoiceRepository = invoiceRepository;
+        for (InvoiceType invoiceType : InvoiceType.values()) {
+            blocks.put(invoiceType, new Block());
+        }
+    }
+
+    public String next(InvoiceType invoiceType) {
+        long number = blocks.get(invoiceType).next(invoiceType);
+        return (invoiceType == InvoiceType.SALE ? "S-INV" : "P-INV") + String.format("%03d", number);
+    }
+
+    //imported invoices bring their own numbers: numbers handed out afterwards start above number.
+    //setval() moves the shared sequence, so every block reserved from now on starts above number, and this node's block
+    //is dropped. A block another node reserved before the import is not: it may still hand out an imported number,
+    //which the unique invoice_number then rejects. With several nodes, import on one and restart the others afterwards.
+    public void skipPast(InvoiceType invoiceType, long number) {
+        if (invoiceType == InvoiceType.SALE) {
+            invoiceRepository.skipSaleInvoiceNumbersPast(number);
+        } else {
+            invoiceRepository.skipPurchaseInvoiceNumbersPast(number);
+        }
+        blocks.get(invoiceType).discard();
+    }
+
+    private long reserveBlock(InvoiceType invoiceType) {
+        return invoiceType == InvoiceType.SALE
+                ? invoiceRepository.nextSaleInvoiceNumberBlock()
+                : invoiceRepository.nextPurchaseInvoiceNumberBlock();
+    }
+
+    private class Block {
+        private long next;
+        private long end;
+
+        synchronized long next(InvoiceType invoiceType) {
+            if (next == end) {
+                next = reserveBlock(invoiceType);
+                end = next + BLOCK_SIZE;
+            }
+            return next++;
+        }
+
+        synchronized void discard() {
+            next = end;
+        }
+    }
+}
@@ -13,7 +13,11 @@ import com.example.accountingapp.repository.InvoiceProductRepository;
 import com.example.accountingapp.repository.InvoiceRepository;
 import com.example.accountingapp.repository.ProductRepository;
 import com.example.accountingapp.service.InvoiceProductService;
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -29,14 +33,18 @@ public class InvoiceProductServiceImpl implements InvoiceProductService {
     final private ProductRepository productRepository;
     final private MapperUtil mapperUtil;
     final private InvoiceRepository invoiceRepository;
+    final private ProfitLossLedgerService profitLossLedgerService;
+    final private ResourceVersions resourceVersions;
 
 
-    public InvoiceProductServiceImpl(InvoiceProductRepository invoiceProductRepository, CompanyRepository companyRepository, ProductRepository productRepository, MapperUtil mapperUtil, InvoiceRepository invoiceRepository) {
+    public InvoiceProductServiceImpl(InvoiceProductRepository invoiceProductRepository, CompanyRepository companyRepository, ProductRepository productRepository, MapperUtil mapperUtil, InvoiceRepository invoiceRepository, ProfitLossLedgerService profitLossLedgerService, ResourceVersions resourceVersions) {
         this.invoiceProductRepository = invoiceProductRepository;
         this.companyRepository = companyRepository;
         this.productRepository = productRepository;
         this.mapperUtil = mapperUtil;
         this.invoiceRepository = invoiceRepository;
+        this.profitLossLedgerService = profitLossLedgerService;
+        this.resourceVersions = resourceVersions;
     }
 
     @Override
@@ -59,14 +67,14 @@ public class InvoiceProductServiceImpl implements InvoiceProductService {
         Invoice invoice = invoiceRepository.findById(id).get();
         InvoiceProduct invoiceProduct = mapperUtil.convert(invoiceProductDTO, new InvoiceProduct());
         invoiceProduct.setInvoice(invoice);
-        //get last id in invoiceProduct Table +1
-        Long lastId = invoiceProductRepository.findHighestId().get()+1;
-        invoiceProduct.setId(lastId);
+        //id is assigned from invoice_product_seq on insert
+        invoiceProduct.setId(null);
 
         if(invoice.getInvoiceType()== InvoiceType.PURCHASE) invoiceProduct.setProfit(BigDecimal.ZERO);
         Product product = productRepository.getProductByName(invoiceProductDTO.getName()).get();
         invoiceProduct.setProduct(product);
         invoiceProductRepository.save (invoiceProduct);
+        resourceVersions.changed(VersionedResource.INVOICES);
     }
 
     @Override
@@ -89,11 +97,13 @@ public class InvoiceProductServiceImpl implements InvoiceProductService {
     }
 
     @Override
+    @Transactional
     public void deleteInvoiceProductById(Long ipid) {
+        profitLossLedgerService.removeInvoiceProduct(ipid);
         InvoiceProduct invoiceProduct =  invoiceProductRepository.findById(ipid).get();
         invoiceProduct.setIsDeleted(true);
         invoiceProductRepository.save(invoiceProduct);
-
+        resourceVersions.changed(VersionedResource.INVOICES);
     }
 
 
@@ -118,12 +128,10 @@ public class InvoiceProductServiceImpl implements InvoiceProductService {
     }
 
     @Override
+    @Transactional
     public void disableInvoiceProductsByInvoiceId(Long id) {
-        List<InvoiceProduct> invoiceProductList = invoiceProductRepository.findAllByInvoiceId(id);
-        for (InvoiceProduct each : invoiceProductList) {
-            each.setEnabled(false);
-            invoiceProductRepository.save(each);
-        }
+        invoiceProductRepository.setEnabledByInvoiceId(id, false);
+        resourceVersions.changed(VersionedResource.INVOICES);
     }
 
 }
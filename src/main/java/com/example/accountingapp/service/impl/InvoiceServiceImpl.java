@@ -5,21 +5,32 @@ import com.example.accountingapp.dto.InvoiceProductDTO;
 import com.example.accountingapp.entity.*;
 import com.example.accountingapp.enums.InvoiceStatus;
 import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.enums.ProductStatus;
 import com.example.accountingapp.mapper.MapperUtil;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetPaginator;
+import com.example.accountingapp.pagination.KeysetRequest;
 import com.example.accountingapp.repository.*;
 import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import com.example.accountingapp.tenant.TenantContextHolder;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 import java.util.Optional;
@@ -35,8 +46,14 @@ public class InvoiceServiceImpl implements InvoiceService {
     private final ProductRepository productRepository;
     private final StockDetailsRepository stockDetailsRepository;
     private final ClientVendorRepository clientVendorRepository;
-
-    public InvoiceServiceImpl(MapperUtil mapperUtil, InvoiceRepository invoiceRepository, InvoiceProductRepository invoiceProductRepository, CompanyRepository companyRepository, ProductRepository productRepository, StockDetailsRepository stockDetailsRepository, ClientVendorRepository clientVendorRepository) {
+    private final ProfitLossLedgerService profitLossLedgerService;
+    private final InvoiceNumberAllocator invoiceNumberAllocator;
+    private final FifoCostEngine fifoCostEngine;
+    private final StockCounter stockCounter;
+    private final ResourceVersions resourceVersions;
+    private final TenantContextHolder tenantContextHolder;
+
+    public InvoiceServiceImpl(MapperUtil mapperUtil, InvoiceRepository invoiceRepository, InvoiceProductRepository invoiceProductRepository, CompanyRepository companyRepository, ProductRepository productRepository, StockDetailsRepository stockDetailsRepository, ClientVendorRepository clientVendorRepository, ProfitLossLedgerService profitLossLedgerService, InvoiceNumberAllocator invoiceNumberAllocator, FifoCostEngine fifoCostEngine, StockCounter stockCounter, ResourceVersions resourceVersions, TenantContextHolder tenantContextHolder) {
         this.mapperUtil = mapperUtil;
         this.invoiceRepository = invoiceRepository;
         this.invoiceProductRepository = invoiceProductRepository;
@@ -44,31 +61,32 @@ public class InvoiceServiceImpl implements InvoiceService {
         this.productRepository = productRepository;
         this.stockDetailsRepository = stockDetailsRepository;
         this.clientVendorRepository = clientVendorRepository;
+        this.profitLossLedgerService = profitLossLedgerService;
+        this.invoiceNumberAllocator = invoiceNumberAllocator;
+        this.fifoCostEngine = fifoCostEngine;
+        this.stockCounter = stockCounter;
+        this.resourceVersions = resourceVersions;
+        this.tenantContextHolder = tenantContextHolder;
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
+        profitLossLedgerService.removeInvoice(id);
         Invoice invoice = invoiceRepository.findById(id).get();
         invoice.setIsDeleted(true);
         invoiceRepository.save(invoice);
+        invoicesChanged();
     }
 
     @Override
     public String getNextInvoiceIdSale() {
-        long nextMax = invoiceRepository.selectMaxInvoiceId() + 1;
-        DecimalFormat formatter = (DecimalFormat) NumberFormat.getNumberInstance(Locale.US);
-        formatter.applyPattern("000");
-        String tempMax = formatter.format(nextMax);
-        return "S-INV" + tempMax;
+        return invoiceNumberAllocator.next(InvoiceType.SALE);
     }
 
     @Override
     public String getNextInvoiceIdPurchase() {
-        long nextMax = invoiceRepository.selectMaxInvoiceId() + 1;
-        DecimalFormat formatter = (DecimalFormat) NumberFormat.getNumberInstance(Locale.US);
-        formatter.applyPattern("000");
-        String tempMax = formatter.format(nextMax);
-        return "P-INV" + tempMax;
+        return invoiceNumberAllocator.next(InvoiceType.PURCHASE);
     }
 
 
@@ -86,11 +104,61 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
+    @Transactional
     public void approveInvoice(String invoiceId) {
-        Invoice invoice = invoiceRepository.findByInvoiceNumber(invoiceId);
+        Invoice invoice = invoiceRepository.findByInvoiceNumberForUpdate(invoiceId).get();
+        if (invoice.getInvoiceStatus() == InvoiceStatus.APPROVED) return;
         invoice.setInvoiceStatus(InvoiceStatus.APPROVED);
         invoiceRepository.save(invoice);
+        profitLossLedgerService.addInvoice(invoice.getId());
+        invoicesChanged();
+    }
+
+    //Approves a sales invoice only if every product on it is active and has enough stock.
+    //Each line is costed against the oldest purchase lots first and its profit stored; the lots it used are updated together.
+    //Profit is net of tax on both sides: revenue is price * qty and the lots hold the purchase price without tax.
+    @Override
+    @Transactional
+    public boolean approveSalesInvoice(String invoiceId) {
+        //the row lock makes a second, concurrent approval wait and then see APPROVED
+        Invoice invoice = invoiceRepository.findByInvoiceNumberForUpdate(invoiceId).get();
+        if (invoice.getInvoiceStatus() == InvoiceStatus.APPROVED) return true;
+        //derived query, so soft-deleted lines are left out here just as in the ledger's sums
+        List<InvoiceProduct> invoiceProductList = invoiceProductRepository.getByInvoiceId(invoice.getId());
+
+        //sorted, so product rows and lots are always locked in the same order
+        Map<Long, Long> soldQtyByProductId = new TreeMap<>();
+        for (InvoiceProduct each : invoiceProductList) {
+            soldQtyByProductId.merge(each.getProduct().getId(), each.getQty().longValue(), Long::sum);
+        }
+        List<Product> products = productRepository.findAllById(soldQtyByProductId.keySet());
+        if (products.size() != soldQtyByProductId.size()) return false;
+        for (Product product : products) {
+            if (product.getProductStatus() != ProductStatus.ACTIVE) return false;
+        }
+        //conditional in-database decrements: the first product without enough stock undoes the ones before it
+        for (Map.Entry<Long, Long> each : soldQtyByProductId.entrySet()) {
+            if (!stockCounter.remove(each.getKey(), each.getValue())) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return false;
+            }
+        }
 
+        FifoCostEngine.Costing costing = fifoCostEngine.lockOpenLots(soldQtyByProductId.keySet());
+        for (InvoiceProduct each : invoiceProductList) {
+            BigDecimal cost = costing.consume(each.getProduct().getId(), each.getQty());
+            BigDecimal revenue = each.getPrice().multiply(BigDecimal.valueOf(each.getQty()));
+            each.setProfit(revenue.subtract(cost).setScale(2, RoundingMode.HALF_UP));
+        }
+        stockDetailsRepository.saveAll(costing.changedLots());
+        invoiceProductRepository.saveAll(invoiceProductList);
+
+        invoice.setInvoiceStatus(InvoiceStatus.APPROVED);
+        invoiceRepository.save(invoice);
+        profitLossLedgerService.addInvoice(invoice.getId());
+        invoicesChanged();
+        resourceVersions.changed(VersionedResource.PRODUCTS);
+        return true;
     }
 
     @Override
@@ -104,53 +172,62 @@ public class InvoiceServiceImpl implements InvoiceService {
 
     @Override
     public List<InvoiceDTO> listAllByInvoiceType(InvoiceType invoiceType) {
-        //map invoiceProduct of each Invoice -> DTO
-        List<InvoiceDTO> listInvoiceDTO = invoiceRepository.findAllByInvoiceType(invoiceType)
-                .stream().filter(Invoice::isEnabled).map(p -> mapperUtil.convert(p, new InvoiceDTO())).collect(Collectors.toList());
-
-        //map all invoice products from invoice to invoiceProduct DTO
-        for (InvoiceDTO each : listInvoiceDTO) {
-            List<InvoiceProductDTO> invoiceProductDTOList = invoiceProductRepository.findAllByInvoiceId(each.getId())
-                    .stream()
-                    .filter(InvoiceProduct::isEnabled)
-                    .map(p -> mapperUtil.convert(p, new InvoiceProductDTO()))
-                    .collect(Collectors.toList());
-            each.setInvoiceProductList(invoiceProductDTOList);
-        }
+        //one query for the invoices (vendor and company fetched along), one query for all of their lines
+        List<InvoiceDTO> listInvoiceDTO = invoiceRepository.findAllEnabledByInvoiceTypeFetchParties(tenantContextHolder.currentCompanyId(), invoiceType)
+                .stream().map(p -> mapperUtil.convert(p, new InvoiceDTO())).collect(Collectors.toList());
+        populateLinesAndTotals(listInvoiceDTO, invoiceType);
+        return listInvoiceDTO;
+    }
+
+    @Override
+    public KeysetPage<InvoiceDTO> listPageByInvoiceType(InvoiceType invoiceType, KeysetRequest request) {
+        Long companyId = tenantContextHolder.currentCompanyId();
+        KeysetPage<InvoiceDTO> page = KeysetPaginator.fetch(request,
+                (id, pageable) -> invoiceRepository.findEnabledPageByInvoiceTypeAndIdGreaterThan(companyId, invoiceType, request.getFilterPattern(), id, pageable),
+                (id, pageable) -> invoiceRepository.findEnabledPageByInvoiceTypeAndIdLessThan(companyId, invoiceType, request.getFilterPattern(), id, pageable),
+                Invoice::getId)
+                .map(p -> mapperUtil.convert(p, new InvoiceDTO()));
+        populateLinesAndTotals(page.getContent(), invoiceType);
+        return page;
+    }
 
-        //set cost
-        listInvoiceDTO.forEach(p -> p.setCost((calculateCostByInvoiceID(p.getId())).setScale(2, RoundingMode.CEILING)));
+    private void populateLinesAndTotals(List<InvoiceDTO> listInvoiceDTO, InvoiceType invoiceType) {
+        if (listInvoiceDTO.isEmpty()) return;
+
+        List<Long> invoiceIds = listInvoiceDTO.stream().map(InvoiceDTO::getId).collect(Collectors.toList());
+        Map<Long, List<InvoiceProductDTO>> invoiceProductsByInvoiceId = new HashMap<>();
+        for (InvoiceProduct each : invoiceProductRepository.findAllEnabledByInvoiceIdIn(invoiceIds)) {
+            invoiceProductsByInvoiceId.computeIfAbsent(each.getInvoice().getId(), k -> new ArrayList<>())
+                    .add(mapperUtil.convert(each, new InvoiceProductDTO()));
+        }
 
-        //set tax
-        if (invoiceType == InvoiceType.PURCHASE) {
-            for (InvoiceDTO eachInvoiceDTO : listInvoiceDTO) {
-                BigDecimal totalTax = BigDecimal.valueOf(0);
-                for (InvoiceProductDTO each : eachInvoiceDTO.getInvoiceProductList()) {
-                    totalTax = totalTax.add(each.getPrice().multiply(BigDecimal.valueOf(each.getQty())).multiply(each.getTax()).divide(BigDecimal.valueOf(100)));
+        //set lines, cost, tax and total in a single pass over the mapped lines
+        for (InvoiceDTO eachInvoiceDTO : listInvoiceDTO) {
+            List<InvoiceProductDTO> invoiceProductDTOList = invoiceProductsByInvoiceId.getOrDefault(eachInvoiceDTO.getId(), new ArrayList<>());
+            eachInvoiceDTO.setInvoiceProductList(invoiceProductDTOList);
+
+            BigDecimal cost = BigDecimal.ZERO;
+            BigDecimal totalTax = BigDecimal.ZERO;
+            for (InvoiceProductDTO each : invoiceProductDTOList) {
+                BigDecimal currItemCost = each.getPrice().multiply(BigDecimal.valueOf(each.getQty()));
+                cost = cost.add(currItemCost);
+                if (invoiceType == InvoiceType.PURCHASE) {
+                    totalTax = totalTax.add(currItemCost.multiply(each.getTax()).divide(BigDecimal.valueOf(100)));
                 }
-                eachInvoiceDTO.setTax(totalTax.setScale(2, RoundingMode.CEILING));
             }
-        } else {   //todo Vitaly Bahrom - set tax
-            listInvoiceDTO.forEach(p -> p.setTax((p.getCost().multiply(BigDecimal.valueOf(0.07))).setScale(2, RoundingMode.CEILING)));
+            eachInvoiceDTO.setCost(cost.setScale(2, RoundingMode.CEILING));
+            if (invoiceType != InvoiceType.PURCHASE) {   //todo Vitaly Bahrom - set tax
+                totalTax = eachInvoiceDTO.getCost().multiply(BigDecimal.valueOf(0.07));
+            }
+            eachInvoiceDTO.setTax(totalTax.setScale(2, RoundingMode.CEILING));
+            eachInvoiceDTO.setTotal((eachInvoiceDTO.getCost().add(eachInvoiceDTO.getTax())).setScale(2, RoundingMode.CEILING));
         }
-
-        //set total
-        listInvoiceDTO.forEach(p -> p.setTotal(((p.getCost()).add(p.getTax())).setScale(2, RoundingMode.CEILING)));
-        return listInvoiceDTO;
     }
 
 
     @Override
     public BigDecimal calculateCostByInvoiceID(Long id) {
-        List<InvoiceProductDTO> invoiceProductListById = invoiceProductRepository.findAllByInvoiceId(id)
-                .stream().filter(p -> p.isEnabled())
-                .map(p -> mapperUtil.convert(p, new InvoiceProductDTO())).collect(Collectors.toList());
-        BigDecimal cost = BigDecimal.valueOf(0);
-        for (InvoiceProductDTO each : invoiceProductListById) {
-            BigDecimal currItemCost = each.getPrice().multiply(BigDecimal.valueOf(each.getQty()));
-            cost = cost.add(currItemCost);
-        }
-        return cost;
+        return invoiceProductRepository.sumCostByInvoiceId(id);
     }
 
     @Override
@@ -176,6 +253,7 @@ public class InvoiceServiceImpl implements InvoiceService {
         invoice.setInvoiceStatus(InvoiceStatus.PENDING);
 
         invoice = invoiceRepository.save(invoice);
+        invoicesChanged();
         return mapperUtil.convert(invoice, new InvoiceDTO());
     }
 
@@ -186,6 +264,7 @@ public class InvoiceServiceImpl implements InvoiceService {
             ClientVendor clientVendor = clientVendorRepository.findByCompanyName(dto.getCompanyName()).get();
             invoice.get().setClientVendor(clientVendor);
             invoiceRepository.save(invoice.get());
+            invoicesChanged();
         }
     }
 
@@ -195,56 +274,54 @@ public class InvoiceServiceImpl implements InvoiceService {
     }
 
     @Override
+    @Transactional
     public void enableInvoice(Long id) {
         Invoice invoice = invoiceRepository.findById(id).get();
         // set status enabled for all product invoices in the list
-        List<InvoiceProduct> invoiceProductList = invoiceProductRepository.findAllByInvoiceId(id);
-        for (InvoiceProduct eachInvoiceProduct : invoiceProductList) {
-            eachInvoiceProduct.setEnabled(true);
-        }
+        invoiceProductRepository.setEnabledByInvoiceId(id, true);
         invoice.setEnabled(true);
         invoiceRepository.save(invoice);
+        invoicesChanged();
     }
 
+    //Adds the lines to stock and records each line as a purchase lot in the same transaction,
+    //so no sale can see the new stock without the lots that cost it.
     @Override
-    public void approvePurchaseInvoice(Long id) {
-        List<InvoiceProduct> invoiceProductList = invoiceProductRepository.findAllByInvoiceId(id);
-        for (InvoiceProduct eachInvoiceProduct : invoiceProductList) {
-            //update stock
-            Long productId = eachInvoiceProduct.getProduct().getId();
-            Integer additionalQty = eachInvoiceProduct.getQty();
-            Product product = productRepository.findProductById(productId).get();
-            product.setQty(product.getQty().add(BigInteger.valueOf(additionalQty)));
-            productRepository.save(product);
-        }
+    @Transactional
+    public boolean approvePurchaseInvoice(Long id) {
+        //the row lock makes a second, concurrent approval wait and then see APPROVED
+        Invoice invoice = invoiceRepository.findByIdForUpdate(id).get();
+        if (invoice.getInvoiceStatus() == InvoiceStatus.APPROVED) return false;
+        //update stock
+        stockCounter.addInvoice(id);
+        addLots(id);
         //change status of invoice -> approved
-        Invoice invoice = invoiceRepository.findById(id).get();
         invoice.setInvoiceStatus(InvoiceStatus.APPROVED);
         invoiceRepository.save(invoice);
-
+        profitLossLedgerService.addInvoice(id);
+        invoicesChanged();
+        resourceVersions.changed(VersionedResource.PRODUCTS);
+        return true;
     }
 
-    @Override
-    public void addProductToStockByInvoice(Long id) {
-        List<InvoiceProduct> invoiceProductList = invoiceProductRepository.findAllByInvoiceId(id);
-
-        for (InvoiceProduct eachInvoiceProduct : invoiceProductList) {
+    private void addLots(Long invoiceId) {
+        //ids come from stock_details_seq, so the lots are inserted in JDBC batches by saveAll
+        List<StockDetails> lots = new ArrayList<>();
+        for (InvoiceProduct eachInvoiceProduct : invoiceProductRepository.getByInvoiceId(invoiceId)) {
             StockDetails stockDetails = new StockDetails();
             stockDetails.setProduct(eachInvoiceProduct.getProduct());
-            stockDetails.setPrice(eachInvoiceProduct.getTax().add(BigDecimal.valueOf(100)).divide(BigDecimal.valueOf(100)).multiply(eachInvoiceProduct.getPrice()));
+            //net unit cost: sales revenue is net of tax too, so FIFO profit is not understated by the purchase tax
+            stockDetails.setPrice(eachInvoiceProduct.getPrice());
             stockDetails.setQuantity(BigInteger.valueOf(eachInvoiceProduct.getQty()));
             stockDetails.setRemainingQuantity(BigInteger.valueOf(eachInvoiceProduct.getQty()));
             stockDetails.setIDate(LocalDateTime.now());
-            stockDetailsRepository.save(stockDetails);
-
-//            BigInteger remainingQtyAfter = BigInteger.ZERO;
-//            for (StockDetails each : stockDetailsRepository.findAllByProductId(eachInvoiceProduct.getProduct().getId())) {
-//                remainingQtyAfter = remainingQtyAfter.add(each.getQuantity());
-//            }
-//            for (StockDetails each : stockDetailsRepository.findAllByProductId(eachInvoiceProduct.getProduct().getId())) {
-//                each.setRemainingQuantity(remainingQtyAfter);
-//                stockDetailsRepository.save(each);
-//            }
+            lots.add(stockDetails);
         }
+        stockDetailsRepository.saveAll(lots);
+    }
+
+    //the invoice lists are per company, so only the current tenant's pages are invalidated
+    private void invoicesChanged() {
+        resourceVersions.changed(VersionedResource.INVOICES);
     }
-}
\ No newline at end of file
+}
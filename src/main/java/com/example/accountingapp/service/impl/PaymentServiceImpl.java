@@ -1,10 +1,14 @@
 package com.example.accountingapp.service.impl;
 
+import com.example.accountingapp.cache.ReferenceCache;
+import com.example.accountingapp.cache.ReferenceCopies;
+import com.example.accountingapp.cache.ReferenceDataCaches;
 import com.example.accountingapp.dto.PaymentDTO;
 import com.example.accountingapp.entity.Payment;
 import com.example.accountingapp.mapper.MapperUtil;
 import com.example.accountingapp.repository.PaymentRepository;
 import com.example.accountingapp.service.PaymentService;
+import com.example.accountingapp.tenant.TenantContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -16,10 +20,15 @@ import java.util.stream.Collectors;
 public class PaymentServiceImpl implements PaymentService {
   private final PaymentRepository paymentRepository;
   private final MapperUtil mapperUtil;
+  private final TenantContextHolder tenantContextHolder;
+  //a company's payments of one year, keyed "companyId:year"; at most twelve rows each
+  private final ReferenceCache<String, List<PaymentDTO>> calendars;
 
-  public PaymentServiceImpl(PaymentRepository paymentRepository, MapperUtil mapperUtil) {
+  public PaymentServiceImpl(PaymentRepository paymentRepository, MapperUtil mapperUtil, TenantContextHolder tenantContextHolder, ReferenceDataCaches referenceDataCaches) {
     this.paymentRepository = paymentRepository;
     this.mapperUtil = mapperUtil;
+    this.tenantContextHolder = tenantContextHolder;
+    this.calendars = referenceDataCaches.create("paymentCalendars", ReferenceCopies.listOf(ReferenceCopies::payment));
   }
 
   @Override
@@ -30,10 +39,11 @@ public class PaymentServiceImpl implements PaymentService {
   }
 
   @Override
-  public List<PaymentDTO> listAllByYear(String year) {
-    return paymentRepository.findPaymentByYearOrderByMonth(year).stream()
+  public List<PaymentDTO> listAllByYear(Integer year) {
+    Long companyId = tenantContextHolder.currentCompanyId();
+    return calendars.get(calendarKey(companyId, year), key -> paymentRepository.findCalendarByCompanyIdAndYear(companyId, year).stream()
         .map(payment -> mapperUtil.convert(payment, new PaymentDTO()))
-        .collect(Collectors.toList());
+        .collect(Collectors.toUnmodifiableList()));
   }
 
   @Override
@@ -52,7 +62,15 @@ public class PaymentServiceImpl implements PaymentService {
   @Override
   public void chargePaymentById(Long id) {
     Payment payment = paymentRepository.findPaymentById(id);
+    if (payment == null) {
+      throw new IllegalArgumentException("No payment found with id " + id);
+    }
     payment.setIsPaid(true);
     paymentRepository.save(payment);
+    calendars.invalidate(calendarKey(payment.getCompany().getId(), payment.getYear()));
+  }
+
+  private String calendarKey(Long companyId, Integer year) {
+    return companyId + ":" + year;
   }
 }
@@ -0,0 +1,115 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.InvoiceDTO;
+import com.example.accountingapp.dto.InvoiceProductDTO;
+import com.example.accountingapp.entity.Invoice;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.mapper.MapperUtil;
+import com.example.accountingapp.pdf.PdfFileCache;
+import com.example.accountingapp.pdf.PdfRenderer;
+import com.example.accountingapp.repository.InvoiceRepository;
+import com.example.accountingapp.service.CompanyService;
+import com.example.accountingapp.service.InvoiceProductService;
+import com.example.accountingapp.service.PdfExportService;
+import com.example.accountingapp.service.ReportService;
+import com.example.accountingapp.service.UserService;
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Approved invoices cannot be edited any more, so their PDF is rendered once and kept on disk.
+//The updatedTime is part of the cache key: should an approved invoice ever be saved again, the next request renders a fresh file.
+@Service
+public class PdfExportServiceImpl implements PdfExportService {
+
+    private final InvoiceRepository invoiceRepository;
+    private final InvoiceProductService invoiceProductService;
+    private final CompanyService companyService;
+    private final ReportService reportService;
+    private final UserService userService;
+    private final MapperUtil mapperUtil;
+    private final TenantContextHolder tenantContextHolder;
+    private final PdfRenderer pdfRenderer;
+    private final PdfFileCache pdfFileCache;
+
+    public PdfExportServiceImpl(InvoiceRepository invoiceRepository, InvoiceProductService invoiceProductService, CompanyService companyService, ReportService reportService, UserService userService, MapperUtil mapperUtil, TenantContextHolder tenantContextHolder, PdfRenderer pdfRenderer, PdfFileCache pdfFileCache) {
+        this.invoiceRepository = invoiceRepository;
+        this.invoiceProductService = invoiceProductService;
+        this.companyService = companyService;
+        this.reportService = reportService;
+        this.userService = userService;
+        this.mapperUtil = mapperUtil;
+        this.tenantContextHolder = tenantContextHolder;
+        this.pdfRenderer = pdfRenderer;
+        this.pdfFileCache = pdfFileCache;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Path findApprovedInvoicePdf(Long invoiceId) throws IOException {
+        Invoice invoice = findInvoice(invoiceId);
+        if (invoice.getInvoiceStatus() != InvoiceStatus.APPROVED) {
+            return null;
+        }
+        //the PDF prints the company and client details too, so editing either one renders a new version
+        String version = epochMillis(invoice.getUpdatedTime()) + "-" + epochMillis(invoice.getCompany().getUpdatedTime())
+                + "-" + epochMillis(invoice.getClientVendor().getUpdatedTime());
+        return pdfFileCache.get("invoice-" + invoiceId, version, out -> renderInvoice(invoice, out));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeInvoicePdf(Long invoiceId, OutputStream out) throws IOException {
+        renderInvoice(findInvoice(invoiceId), out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void writeReportPdf(OutputStream out) throws IOException {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("company", userService.findByUser());
+        variables.put("profitLoss", reportService.profitLoss());
+        variables.put("productsTotal", reportService.calculateByProducts());
+        pdfRenderer.render("report/profit-loss-pdf", variables, out);
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private Invoice findInvoice(Long invoiceId) {
+        return invoiceRepository.findById(invoiceId)
+                .filter(invoice -> invoice.getCompany().getId().equals(tenantContextHolder.currentCompanyId()))
+                .orElseThrow(() -> new IllegalArgumentException("No invoice found with id " + invoiceId));
+    }
+
+    private void renderInvoice(Invoice invoice, OutputStream out) throws IOException {
+        List<InvoiceProductDTO> invoiceProducts = invoiceProductService.findAllInvoiceProductsByInvoiceId(invoice.getId());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal total = BigDecimal.ZERO;
+        for (InvoiceProductDTO each : invoiceProducts) {
+            subtotal = subtotal.add(each.getPrice().multiply(BigDecimal.valueOf(each.getQty())));
+            total = total.add(each.getTotal());
+        }
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("invoice", mapperUtil.convert(invoice, new InvoiceDTO()));
+        variables.put("company", companyService.findById(invoice.getCompany().getId()));
+        variables.put("client", invoice.getClientVendor());
+        variables.put("invoiceProducts", invoiceProducts);
+        variables.put("subtotal", subtotal);
+        variables.put("tax", total.subtract(subtotal));
+        variables.put("total", total);
+        pdfRenderer.render("invoiceprinted", variables, out);
+    }
+}
@@ -3,11 +3,15 @@ package com.example.accountingapp.service.impl;
 import com.example.accountingapp.dto.ProductDTO;
 import com.example.accountingapp.entity.Product;
 
-import com.example.accountingapp.entity.User;
 import com.example.accountingapp.mapper.MapperUtil;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetPaginator;
+import com.example.accountingapp.pagination.KeysetRequest;
 import com.example.accountingapp.repository.ProductRepository;
-import com.example.accountingapp.repository.UserRepository;
 import com.example.accountingapp.service.ProductService;
+import com.example.accountingapp.tenant.TenantContextHolder;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,26 +20,35 @@ import java.util.stream.Collectors;
 @Service
 public class ProductServiceImpl implements ProductService {
 
-    private final UserRepository userRepository;
+    private final TenantContextHolder tenantContextHolder;
     private final ProductRepository productRepository;
     private final MapperUtil mapperUtil;
+    private final ResourceVersions resourceVersions;
 
-    public ProductServiceImpl(UserRepository userRepository, ProductRepository productRepository, MapperUtil mapperUtil) {
-        this.userRepository = userRepository;
+    public ProductServiceImpl(TenantContextHolder tenantContextHolder, ProductRepository productRepository, MapperUtil mapperUtil, ResourceVersions resourceVersions) {
+        this.tenantContextHolder = tenantContextHolder;
         this.productRepository = productRepository;
         this.mapperUtil = mapperUtil;
+        this.resourceVersions = resourceVersions;
     }
 
     @Override
     public List<ProductDTO> listAllProducts() {
-        // TODO security by username or email
-        // String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        User loggedInUser = userRepository.findByEmail("manager1@company2.com");
-        List<Product> list = productRepository.findAllByCompany(loggedInUser.getCompany());
+        List<Product> list = productRepository.findAllByCompany_Id(tenantContextHolder.currentCompanyId());
         return list.stream()
                 .map(product -> mapperUtil.convert(product, new ProductDTO())).collect(Collectors.toList());
     }
 
+    @Override
+    public KeysetPage<ProductDTO> listProductsPage(KeysetRequest request) {
+        Long companyId = tenantContextHolder.currentCompanyId();
+        return KeysetPaginator.fetch(request,
+                (id, pageable) -> productRepository.findByCompany_IdAndNameContainingIgnoreCaseAndIdGreaterThan(companyId, request.getFilterOrEmpty(), id, pageable),
+                (id, pageable) -> productRepository.findByCompany_IdAndNameContainingIgnoreCaseAndIdLessThan(companyId, request.getFilterOrEmpty(), id, pageable),
+                Product::getId)
+                .map(product -> mapperUtil.convert(product, new ProductDTO()));
+    }
+
     @Override
     public ProductDTO findById(Long id) {
         return mapperUtil.convert(productRepository.findById(id).get(), new ProductDTO());
@@ -50,6 +63,7 @@ public class ProductServiceImpl implements ProductService {
     public void updateProduct(ProductDTO product) {
         Product p = mapperUtil.convert(product,new Product());
         productRepository.save(p);
+        resourceVersions.changed(VersionedResource.PRODUCTS);
     }
 
 
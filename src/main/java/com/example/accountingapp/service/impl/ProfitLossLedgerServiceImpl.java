@@ -0,0 +1,128 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.projection.InvoiceTotalsRow;
+import com.example.accountingapp.dto.projection.LedgerPeriodRow;
+import com.example.accountingapp.entity.Invoice;
+import com.example.accountingapp.entity.InvoiceProduct;
+import com.example.accountingapp.entity.ProfitLossLedger;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.repository.InvoiceProductRepository;
+import com.example.accountingapp.repository.InvoiceRepository;
+import com.example.accountingapp.repository.ProfitLossLedgerRepository;
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@Service
+public class ProfitLossLedgerServiceImpl implements ProfitLossLedgerService {
+
+    private final ProfitLossLedgerRepository profitLossLedgerRepository;
+    private final InvoiceProductRepository invoiceProductRepository;
+    private final InvoiceRepository invoiceRepository;
+
+    public ProfitLossLedgerServiceImpl(ProfitLossLedgerRepository profitLossLedgerRepository, InvoiceProductRepository invoiceProductRepository, InvoiceRepository invoiceRepository) {
+        this.profitLossLedgerRepository = profitLossLedgerRepository;
+        this.invoiceProductRepository = invoiceProductRepository;
+        this.invoiceRepository = invoiceRepository;
+    }
+
+    @Override
+    @Transactional
+    public void addInvoice(Long invoiceId) {
+        Invoice invoice = invoiceRepository.findById(invoiceId).get();
+        for (InvoiceTotalsRow row : invoiceProductRepository.sumByInvoiceId(invoiceId)) {
+            applyDelta(invoice, row.getTotalPrice(), row.getTotalTax(), row.getTotalQty());
+        }
+    }
+
+    //totals of several approved invoices of one period at once, e.g. one import chunk
+    @Override
+    @Transactional
+    public void addTotals(Long companyId, InvoiceType invoiceType, int year, int month, BigDecimal price, BigDecimal tax, long qty) {
+        applyDelta(companyId, invoiceType, year, month, price, tax, qty);
+    }
+
+    @Override
+    @Transactional
+    public void removeInvoice(Long invoiceId) {
+        Invoice invoice = invoiceRepository.findById(invoiceId).get();
+        if (invoice.getInvoiceStatus() != InvoiceStatus.APPROVED) return;
+        for (InvoiceTotalsRow row : invoiceProductRepository.sumByInvoiceId(invoiceId)) {
+            applyDelta(invoice, row.getTotalPrice().negate(), row.getTotalTax().negate(), -row.getTotalQty());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void removeInvoiceProduct(Long invoiceProductId) {
+        InvoiceProduct invoiceProduct = invoiceProductRepository.findById(invoiceProductId).get();
+        Invoice invoice = invoiceProduct.getInvoice();
+        if (invoice.getInvoiceStatus() != InvoiceStatus.APPROVED) return;
+        applyDelta(invoice, orZero(invoiceProduct.getPrice()).negate(), orZero(invoiceProduct.getTax()).negate(),
+                invoiceProduct.getQty() == null ? 0L : -invoiceProduct.getQty());
+    }
+
+    @Override
+    public Map<InvoiceType, InvoiceTotalsRow> totalsByCompany(Long companyId) {
+        Map<InvoiceType, InvoiceTotalsRow> totals = new EnumMap<>(InvoiceType.class);
+        profitLossLedgerRepository.sumByCompany(companyId).forEach(row -> totals.put(row.getInvoiceType(), row));
+        return totals;
+    }
+
+    //recomputes every ledger row from approved invoice lines inside the database, under a table lock
+    @Override
+    @Transactional
+    public void rebuild() {
+        profitLossLedgerRepository.lockForRebuild();
+        profitLossLedgerRepository.deleteAllPeriods();
+        profitLossLedgerRepository.insertApprovedPeriods();
+    }
+
+    //compares the ledger with a grouped aggregate over invoice_product and describes every mismatching period
+    @Override
+    @Transactional(readOnly = true)
+    public List<String> checkConsistency() {
+        Map<String, ProfitLossLedger> ledgerByKey = new HashMap<>();
+        for (ProfitLossLedger ledger : profitLossLedgerRepository.findAll()) {
+            ledgerByKey.put(key(ledger.getCompany().getId(), ledger.getInvoiceType(), ledger.getPeriodYear(), ledger.getPeriodMonth()), ledger);
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (LedgerPeriodRow expected : invoiceProductRepository.sumApprovedByPeriod()) {
+            String key = key(expected.getCompanyId(), expected.getInvoiceType(), expected.getPeriodYear(), expected.getPeriodMonth());
+            ProfitLossLedger actual = ledgerByKey.remove(key);
+            if (actual == null) {
+                mismatches.add(key + " missing from ledger");
+            } else if (actual.getTotalPrice().compareTo(expected.getTotalPrice()) != 0
+                    || actual.getTotalTax().compareTo(expected.getTotalTax()) != 0
+                    || !actual.getTotalQty().equals(expected.getTotalQty())) {
+                mismatches.add(key + " ledger=" + actual.getTotalPrice() + "/" + actual.getTotalTax() + "/" + actual.getTotalQty()
+                        + " expected=" + expected.getTotalPrice() + "/" + expected.getTotalTax() + "/" + expected.getTotalQty());
+            }
+        }
+        ledgerByKey.values().stream()
+                .filter(ledger -> ledger.getTotalPrice().signum() != 0 || ledger.getTotalTax().signum() != 0 || ledger.getTotalQty() != 0)
+                .forEach(ledger -> mismatches.add(key(ledger.getCompany().getId(), ledger.getInvoiceType(), ledger.getPeriodYear(), ledger.getPeriodMonth()) + " has no approved lines"));
+        return mismatches;
+    }
+
+    private void applyDelta(Invoice invoice, BigDecimal price, BigDecimal tax, Long qty) {
+        applyDelta(invoice.getCompany().getId(), invoice.getInvoiceType(), invoice.getInvoiceDate().getYear(), invoice.getInvoiceDate().getMonthValue(), price, tax, qty);
+    }
+
+    private void applyDelta(Long companyId, InvoiceType invoiceType, int year, int month, BigDecimal price, BigDecimal tax, Long qty) {
+        profitLossLedgerRepository.addToPeriod(companyId, invoiceType.name(), year, month, price, tax, qty);
+    }
+
+    private static String key(Long companyId, InvoiceType invoiceType, Integer year, Integer month) {
+        return companyId + ":" + invoiceType + ":" + year + "-" + month;
+    }
+
+    private static BigDecimal orZero(BigDecimal value) {
+        return value == null ? BigDecimal.ZERO : value;
+    }
+}
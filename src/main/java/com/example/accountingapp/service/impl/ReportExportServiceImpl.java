@@ -0,0 +1,107 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.projection.ProductReportRow;
+import com.example.accountingapp.dto.projection.StockReportRow;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.export.ExportFormat;
+import com.example.accountingapp.export.TableWriter;
+import com.example.accountingapp.repository.InvoiceProductRepository;
+import com.example.accountingapp.service.ReportExportService;
+import com.example.accountingapp.service.ReportService;
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+//Exports read the report rows through a database cursor and write each row as it arrives,
+//so memory use does not grow with the number of invoice lines. The cursor needs the read-only transaction.
+@Service
+public class ReportExportServiceImpl implements ReportExportService {
+
+    private final InvoiceProductRepository invoiceProductRepository;
+    private final ReportService reportService;
+    private final TenantContextHolder tenantContextHolder;
+
+    public ReportExportServiceImpl(InvoiceProductRepository invoiceProductRepository, ReportService reportService, TenantContextHolder tenantContextHolder) {
+        this.invoiceProductRepository = invoiceProductRepository;
+        this.reportService = reportService;
+        this.tenantContextHolder = tenantContextHolder;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportStock(ExportFormat format, OutputStream out) throws IOException {
+        try (TableWriter writer = format.open(out, "Stock");
+             Stream<StockReportRow> rows = invoiceProductRepository.streamStockReportByCompanyId(tenantContextHolder.currentCompanyId())) {
+            writer.writeRow("Date", "Product Name", "Quantity", "Unit", "Sale & Purchase", "Base Price");
+            Iterator<StockReportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                StockReportRow row = iterator.next();
+                writer.writeRow(row.getInvoiceDate(), row.getProductName(), row.getQty(),
+                        row.getUnit() == null ? null : row.getUnit().getValue(),
+                        row.getInvoiceType() == null ? null : row.getInvoiceType().getValue(), row.getPrice());
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProfitLoss(ExportFormat format, OutputStream out) throws IOException {
+        Map<String, BigDecimal> profitLoss = reportService.profitLoss();
+        try (TableWriter writer = format.open(out, "Profit-Loss");
+             Stream<ProductReportRow> rows = invoiceProductRepository.streamByProductAndInvoiceTypeOrderByName(tenantContextHolder.currentCompanyId())) {
+            writer.writeRow("Total Cost", "Total Sales", "Total Tax", "Profit/Loss");
+            writer.writeRow(profitLoss.get("totalCost"), profitLoss.get("totalSale"), profitLoss.get("totalTax"),
+                    profitLoss.get("totalSale").subtract(profitLoss.get("totalCost")));
+            writer.writeRow();
+            writer.writeRow("Product Name", "Total Purchased Qty", "Total Sold Qty", "Total Cost", "Total Income", "Profit/Loss");
+
+            //rows come ordered by name, so the purchase and sale row of a product are adjacent
+            ProductTotals current = null;
+            Iterator<ProductReportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ProductReportRow row = iterator.next();
+                if (current != null && !Objects.equals(current.name, row.getName())) {
+                    current.write(writer);
+                    current = null;
+                }
+                if (current == null) current = new ProductTotals(row.getName());
+                current.add(row);
+            }
+            if (current != null) current.write(writer);
+        }
+    }
+
+    private static class ProductTotals {
+        private final String name;
+        private long purchasedQty;
+        private long soldQty;
+        private BigDecimal totalCost = BigDecimal.ZERO;
+        private BigDecimal totalIncome = BigDecimal.ZERO;
+
+        ProductTotals(String name) {
+            this.name = name;
+        }
+
+        void add(ProductReportRow row) {
+            if (row.getInvoiceType() == InvoiceType.PURCHASE) {
+                purchasedQty = row.getQty();
+                totalCost = row.getTotal();
+            } else if (row.getInvoiceType() == InvoiceType.SALE) {
+                soldQty = row.getQty();
+                totalIncome = row.getTotal();
+            }
+        }
+
+        void write(TableWriter writer) throws IOException {
+            writer.writeRow(name, purchasedQty, soldQty, totalCost, totalIncome, totalIncome.subtract(totalCost));
+        }
+    }
+}
@@ -2,19 +2,23 @@ package com.example.accountingapp.service.impl;
 
 import com.example.accountingapp.dto.InvoiceDTO;
 import com.example.accountingapp.dto.ReportDTO;
+import com.example.accountingapp.dto.projection.InvoiceTotalsRow;
+import com.example.accountingapp.dto.projection.ProductReportRow;
 import com.example.accountingapp.entity.InvoiceProduct;
-import com.example.accountingapp.entity.User;
 import com.example.accountingapp.enums.InvoiceType;
 import com.example.accountingapp.mapper.MapperUtil;
 import com.example.accountingapp.repository.InvoiceProductRepository;
 import com.example.accountingapp.repository.InvoiceRepository;
-import com.example.accountingapp.repository.UserRepository;
 import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.service.ProfitLossLedgerService;
 import com.example.accountingapp.service.ReportService;
+import com.example.accountingapp.tenant.TenantContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,87 +26,67 @@ import java.util.stream.Collectors;
 public class ReportServiceImpl implements ReportService {
 
     private final InvoiceProductRepository invoiceProductRepository;
-    private final UserRepository userRepository;
+    private final TenantContextHolder tenantContextHolder;
     private final InvoiceRepository invoiceRepository;
     private final MapperUtil mapperUtil;
     private final InvoiceService invoiceService;
+    private final ProfitLossLedgerService profitLossLedgerService;
 
-    public ReportServiceImpl(InvoiceProductRepository invoiceProductRepository, UserRepository userRepository, InvoiceRepository invoiceRepository, MapperUtil mapperUtil, InvoiceService invoiceService) {
+    public ReportServiceImpl(InvoiceProductRepository invoiceProductRepository, TenantContextHolder tenantContextHolder, InvoiceRepository invoiceRepository, MapperUtil mapperUtil, InvoiceService invoiceService, ProfitLossLedgerService profitLossLedgerService) {
         this.invoiceProductRepository = invoiceProductRepository;
-        this.userRepository = userRepository;
+        this.tenantContextHolder = tenantContextHolder;
         this.invoiceRepository = invoiceRepository;
         this.mapperUtil = mapperUtil;
         this.invoiceService = invoiceService;
+        this.profitLossLedgerService = profitLossLedgerService;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Map<String, BigDecimal> profitLoss() {
+        return toProfitLoss(profitLossLedgerService.totalsByCompany(tenantContextHolder.currentCompanyId()));
+    }
 
-        User user = userRepository.findByEmail("admin@company2.com");
+    //one grouped query over the approved lines of the range, e.g. month-to-date or year-to-date
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> profitLoss(LocalDate from, LocalDate to) {
+        Map<InvoiceType, InvoiceTotalsRow> totals = new EnumMap<>(InvoiceType.class);
+        invoiceProductRepository.sumApprovedByCompanyAndInvoiceDateBetween(tenantContextHolder.currentCompanyId(), from, to)
+                .forEach(row -> totals.put(row.getInvoiceType(), row));
+        return toProfitLoss(totals);
+    }
 
+    private Map<String, BigDecimal> toProfitLoss(Map<InvoiceType, InvoiceTotalsRow> totals) {
         Map<String, BigDecimal> profitLoss = new HashMap<>();
-
-
-        BigDecimal totalCost = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.PURCHASE, user.getCompany()).stream().
-                map(p->p.getPrice()).
-                reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
-
-
-        BigDecimal totalSale = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.SALE, user.getCompany()).stream().
-                map(p->p.getPrice()).
-                reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
-
-
-        BigDecimal totalTax = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.SALE, user.getCompany()).stream().
-                map(p->p.getTax()).
-                reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
-
-
-        profitLoss.put("totalCost", totalCost);
-        profitLoss.put("totalSale", totalSale);
-        profitLoss.put("totalTax", totalTax);
-
+        profitLoss.put("totalCost", totals.containsKey(InvoiceType.PURCHASE) ? totals.get(InvoiceType.PURCHASE).getTotalPrice() : BigDecimal.ZERO);
+        profitLoss.put("totalSale", totals.containsKey(InvoiceType.SALE) ? totals.get(InvoiceType.SALE).getTotalPrice() : BigDecimal.ZERO);
+        profitLoss.put("totalTax", totals.containsKey(InvoiceType.SALE) ? totals.get(InvoiceType.SALE).getTotalTax() : BigDecimal.ZERO);
         return profitLoss;
     }
 
     @Override
     public Set<ReportDTO> calculateByProducts() {
-        Set<ReportDTO> list= new HashSet<>();
-        User user = userRepository.findByEmail("admin@company2.com");
-        invoiceProductRepository.findAllByInvoice_Company(user.getCompany()).stream().forEach(p->{
-            BigDecimal totalCost = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.PURCHASE,user.getCompany())
-                    .stream()
-                    .filter(product->product.getName().equals(p.getName()))
-                    .map(product->product.getPrice()).
-                    reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
-
-            Integer purchasedQTY = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.PURCHASE,user.getCompany())
-                    .stream()
-                    .filter(product->product.getName().equals(p.getName()))
-                    .map(product->product.getQty()).
-                    reduce(0, (a, b) -> a + b);
-
-            BigDecimal totalIncome = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.SALE,user.getCompany())
-                    .stream()
-                    .filter(product->product.getName().equals(p.getName()))
-                    .map(product->product.getPrice()).
-                    reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
-
-            Integer soldQTY = invoiceProductRepository.findAllByInvoice_InvoiceTypeAndInvoice_Company(InvoiceType.SALE,user.getCompany())
-                    .stream()
-                    .filter(product->product.getName().equals(p.getName()))
-                    .map(product->product.getQty()).
-                    reduce(0, (a, b) -> a + b);
-
-            list.add(new ReportDTO(p.getName(),purchasedQTY,soldQTY,totalCost,totalIncome));
-        });
-        return list;
+        //one grouped row per product name and invoice type, folded into one ReportDTO per product
+        Map<String, ReportDTO> reportByName = new LinkedHashMap<>();
+        for (ProductReportRow row : invoiceProductRepository.sumByProductAndInvoiceType(tenantContextHolder.currentCompanyId())) {
+            ReportDTO report = reportByName.computeIfAbsent(row.getName(),
+                    name -> new ReportDTO(name, 0, 0, BigDecimal.ZERO, BigDecimal.ZERO));
+            if (row.getInvoiceType() == InvoiceType.PURCHASE) {
+                report.setPurchasedQty(row.getQty().intValue());
+                report.setTotalCost(row.getTotal());
+            } else if (row.getInvoiceType() == InvoiceType.SALE) {
+                report.setSoldQty(row.getQty().intValue());
+                report.setTotalIncome(row.getTotal());
+            }
+        }
+        return new LinkedHashSet<>(reportByName.values());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<InvoiceDTO> findLast3ByCompany() {
-        User user = userRepository.findByEmail("admin@company2.com");
-        List<InvoiceDTO> listInvoiceDTO = invoiceRepository.findLast3InvoiceByDate(user.getCompany().getTitle())
+        List<InvoiceDTO> listInvoiceDTO = invoiceRepository.findLast3InvoiceByDate(tenantContextHolder.currentCompanyId())
                         .stream().map(invoice -> mapperUtil.convert(invoice, new InvoiceDTO())).collect(Collectors.toList());
         listInvoiceDTO.forEach(p -> p.setCost((invoiceService.calculateCostByInvoiceID(p.getId())).setScale(2, RoundingMode.CEILING)));
         listInvoiceDTO.forEach(p -> p.setTax((p.getCost().multiply(BigDecimal.valueOf(0.07))).setScale(2, RoundingMode.CEILING)));
@@ -112,8 +96,7 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public List<InvoiceProduct> findAllByCompany() {
-        User user = userRepository.findByEmail("admin@company2.com");
-        return invoiceProductRepository.findAllByInvoice_Company(user.getCompany());
+        return invoiceProductRepository.findAllByInvoice_Company_Id(tenantContextHolder.currentCompanyId());
     }
 
 
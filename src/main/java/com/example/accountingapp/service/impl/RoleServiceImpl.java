@@ -1,5 +1,8 @@
 package com.example.accountingapp.service.impl;
 
+import com.example.accountingapp.cache.ReferenceCache;
+import com.example.accountingapp.cache.ReferenceCopies;
+import com.example.accountingapp.cache.ReferenceDataCaches;
 import com.example.accountingapp.dto.RoleDTO;
 import com.example.accountingapp.mapper.MapperUtil;
 import com.example.accountingapp.repository.RoleRepository;
@@ -15,19 +18,25 @@ public class RoleServiceImpl implements RoleService {
 
     private final RoleRepository roleRepository;
     private final MapperUtil mapperUtil;
+    private final ReferenceCache<Long, RoleDTO> rolesById;
+    private final ReferenceCache<String, List<RoleDTO>> roleLists;
 
-    public RoleServiceImpl(RoleRepository roleRepository, MapperUtil mapperUtil) {
+    //roles are seeded reference data and never written by the application, so nothing invalidates these
+    public RoleServiceImpl(RoleRepository roleRepository, MapperUtil mapperUtil, ReferenceDataCaches referenceDataCaches) {
         this.roleRepository = roleRepository;
         this.mapperUtil = mapperUtil;
+        this.rolesById = referenceDataCaches.create("rolesById", ReferenceCopies::role);
+        this.roleLists = referenceDataCaches.create("roleLists", ReferenceCopies.listOf(ReferenceCopies::role));
     }
 
     @Override
     public List<RoleDTO> listAllRoles() {
-        return roleRepository.findAll().stream().map(role->mapperUtil.convert(role,new RoleDTO())).collect(Collectors.toList());
+        return roleLists.get("all", key -> roleRepository.findAll().stream()
+                .map(role -> mapperUtil.convert(role, new RoleDTO())).collect(Collectors.toUnmodifiableList()));
     }
 
     @Override
     public RoleDTO findById(Long id) {
-        return mapperUtil.convert(roleRepository.findById(id).get(),new RoleDTO());
+        return rolesById.get(id, key -> mapperUtil.convert(roleRepository.findById(key).get(), new RoleDTO()));
     }
 }
@@ -0,0 +1,171 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.projection.ProductQtyRow;
+import com.example.accountingapp.repository.InvoiceProductRepository;
+import com.example.accountingapp.repository.ProductRepository;
+import com.example.accountingapp.version.ResourceVersions;
+import com.example.accountingapp.version.VersionedResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+//Changes Product.qty only through in-database deltas (qty = qty + ?), so concurrent approvals never overwrite each other.
+//With stock.accumulator.enabled, purchase increments are summed per product in memory once their transaction commits
+//and written as one JDBC batch every flush interval. Decrements stay synchronous: they flush the product's pending
+//increments first, in the caller's transaction, and only succeed while enough stock is left.
+//The sums are striped like a LongAdder: each thread adds to one of several maps, so approvals of a hot product do not
+//all contend for the same map bin. A delta is taken out of each stripe with one atomic remove, so two flushes can never
+//write the same increment.
+@Component
+public class StockCounter {
+
+    private static final String ADD_TO_QTY = "UPDATE product SET qty = qty + ? WHERE id = ?";
+
+    private final ProductRepository productRepository;
+    private final InvoiceProductRepository invoiceProductRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate flushTransaction;
+    private final ResourceVersions resourceVersions;
+    private final boolean accumulatorEnabled;
+    private final Map<Long, Long>[] stripes;
+
+    public StockCounter(ProductRepository productRepository, InvoiceProductRepository invoiceProductRepository,
+                        JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ResourceVersions resourceVersions,
+                        @Value("${stock.accumulator.enabled:false}") boolean accumulatorEnabled) {
+        this.productRepository = productRepository;
+        this.invoiceProductRepository = invoiceProductRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        //joins the caller's transaction: a decrement flushes on the connection that already holds its row locks
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        this.resourceVersions = resourceVersions;
+        this.accumulatorEnabled = accumulatorEnabled;
+        this.stripes = newStripes(Runtime.getRuntime().availableProcessors());
+    }
+
+    //adds the quantities of all lines of a purchase invoice to stock
+    public void addInvoice(Long invoiceId) {
+        if (!accumulatorEnabled) {
+            productRepository.addInvoiceQtyToStock(invoiceId);
+            return;
+        }
+        List<ProductQtyRow> rows = invoiceProductRepository.sumQtyByProductForInvoice(invoiceId);
+        afterCommit(() -> {
+            Map<Long, Long> stripe = stripe();
+            for (ProductQtyRow row : rows) {
+                stripe.merge(row.getProductId(), row.getQty(), Long::sum);
+            }
+        });
+    }
+
+    //takes qty units out of stock, or returns false and changes nothing if fewer are left
+    public boolean remove(Long productId, long qty) {
+        flush(productId);
+        return productRepository.removeFromStock(productId, qty) == 1;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.accumulator.flush-interval-ms:500}")
+    @PreDestroy
+    public void flush() {
+        Set<Long> productIds = new HashSet<>();
+        for (Map<Long, Long> stripe : stripes) {
+            productIds.addAll(stripe.keySet());
+        }
+        if (productIds.isEmpty()) return;
+        List<Object[]> batch = new ArrayList<>();
+        for (Long productId : productIds) {
+            Object[] delta = drain(productId);
+            if (delta != null) batch.add(delta);
+        }
+        write(batch);
+    }
+
+    public void flush(Long productId) {
+        Object[] delta = drain(productId);
+        if (delta != null) write(Collections.singletonList(delta));
+    }
+
+    //remove is atomic against merge: an increment lands either in the removed delta or in a fresh entry
+    private Object[] drain(Long productId) {
+        long delta = 0;
+        for (Map<Long, Long> stripe : stripes) {
+            Long part = stripe.remove(productId);
+            if (part != null) delta += part;
+        }
+        if (delta == 0) return null;
+        return new Object[]{delta, productId};
+    }
+
+    private Map<Long, Long> stripe() {
+        return stripes[(int) (Thread.currentThread().getId() & (stripes.length - 1))];
+    }
+
+    //a power of two at least as large as the number of processors
+    @SuppressWarnings("unchecked")
+    private static Map<Long, Long>[] newStripes(int processors) {
+        Map<Long, Long>[] stripes = new Map[Integer.highestOneBit(Math.max(1, processors - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        return stripes;
+    }
+
+    private void write(List<Object[]> batch) {
+        if (batch.isEmpty()) return;
+        flushTransaction.executeWithoutResult(status -> {
+            //registered before the write: whatever ends the transaction other than a commit puts the deltas back
+            afterCompletion(committed -> {
+                if (committed) {
+                    //the batch does not know the products' companies
+                    resourceVersions.committedForAllTenants(VersionedResource.PRODUCTS);
+                } else {
+                    Map<Long, Long> stripe = stripe();
+                    for (Object[] each : batch) {
+                        stripe.merge((Long) each[1], (Long) each[0], Long::sum);
+                    }
+                }
+            });
+            jdbcTemplate.batchUpdate(ADD_TO_QTY, batch);
+        });
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.entity.StripeEvent;
+import com.example.accountingapp.enums.StripeEventStatus;
+import com.example.accountingapp.repository.StripeEventRepository;
+import com.example.accountingapp.service.PaymentService;
+import com.example.accountingapp.service.StripeEventService;
+import com.stripe.exception.EventDataObjectDeserializationException;
+import com.stripe.model.Event;
+import com.stripe.model.EventDataObjectDeserializer;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.StripeObject;
+import com.stripe.net.ApiResource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+//Inbox for Stripe webhooks. The controller only verifies the signature and stores the raw event, the event id
+//as primary key turns Stripe's redeliveries into no-ops. Workers claim an event for one attempt at a time;
+//a failed attempt is retried with exponential backoff until stripe.events.max-attempts, then the event is left as FAILED.
+//Handlers must be idempotent: an event whose worker dies after handling it is handled again once its lease runs out.
+@Service
+public class StripeEventServiceImpl implements StripeEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeEventServiceImpl.class);
+
+    private final StripeEventRepository stripeEventRepository;
+    private final PaymentService paymentService;
+    private final ThreadPoolTaskExecutor stripeEventExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+    private final long leaseMs;
+    private final int sweepBatchSize;
+
+    public StripeEventServiceImpl(StripeEventRepository stripeEventRepository, PaymentService paymentService,
+                                  @Qualifier("stripeEventExecutor") ThreadPoolTaskExecutor stripeEventExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${stripe.events.max-attempts:8}") int maxAttempts,
+                                  @Value("${stripe.events.retry-base-ms:1000}") long retryBaseMs,
+                                  @Value("${stripe.events.retry-max-ms:600000}") long retryMaxMs,
+                                  @Value("${stripe.events.lease-ms:60000}") long leaseMs,
+                                  @Value("${stripe.events.sweep-batch-size:100}") int sweepBatchSize) {
+        this.stripeEventRepository = stripeEventRepository;
+        this.paymentService = paymentService;
+        this.stripeEventExecutor = stripeEventExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+        this.leaseMs = leaseMs;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @Override
+    public boolean receive(String eventId, String eventType, String payload) {
+        Integer inserted = transactionTemplate.execute(status ->
+                stripeEventRepository.insertIfAbsent(eventId, eventType, payload, LocalDateTime.now()));
+        if (inserted == null || inserted == 0) {
+            logger.info("Stripe event {} was already received.", eventId);
+            return false;
+        }
+        dispatch(eventId);
+        return true;
+    }
+
+    //picks up events that could not be queued, are waiting for a retry or whose worker never reported back
+    @Scheduled(fixedDelayString = "${stripe.events.sweep-interval-ms:5000}")
+    public void sweep() {
+        List<String> due = stripeEventRepository.findDueIds(StripeEventStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, sweepBatchSize));
+        for (String eventId : due) {
+            if (!dispatch(eventId)) break;
+        }
+    }
+
+    @Override
+    public void process(String eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                stripeEventRepository.claim(eventId, StripeEventStatus.PENDING, now, now.plus(Duration.ofMillis(leaseMs))));
+        if (claimed == null || claimed == 0) return;
+
+        StripeEvent stripeEvent = stripeEventRepository.findById(eventId).get();
+        try {
+            handle(ApiResource.GSON.fromJson(stripeEvent.getPayload(), Event.class));
+            transactionTemplate.execute(status ->
+                    stripeEventRepository.markProcessed(eventId, StripeEventStatus.PROCESSED, LocalDateTime.now()));
+        } catch (Exception e) {
+            int attempts = stripeEvent.getAttempts();
+            StripeEventStatus next = attempts >= maxAttempts ? StripeEventStatus.FAILED : StripeEventStatus.PENDING;
+            String error = String.valueOf(e.getMessage());
+            logger.warn("Stripe event {} failed on attempt {}: {}", eventId, attempts, error);
+            transactionTemplate.execute(status -> stripeEventRepository.markFailed(eventId, next,
+                    LocalDateTime.now().plus(Duration.ofMillis(backoffMs(attempts))),
+                    error.length() > 1000 ? error.substring(0, 1000) : error));
+        }
+    }
+
+    private boolean dispatch(String eventId) {
+        try {
+            stripeEventExecutor.execute(() -> process(eventId));
+            return true;
+        } catch (TaskRejectedException e) {
+            logger.debug("Stripe event workers are busy, {} stays in the inbox.", eventId);
+            return false;
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(retryMaxMs, retryBaseMs << shift);
+    }
+
+    private void handle(Event event) throws EventDataObjectDeserializationException {
+        switch (event.getType()) {
+            case "payment_intent.succeeded":
+                handlePaymentIntentSucceeded((PaymentIntent) dataObject(event));
+                break;
+
+            default:
+                logger.warn("Unhandled event type: {}", event.getType());
+                break;
+        }
+    }
+
+    private void handlePaymentIntentSucceeded(PaymentIntent paymentIntent) {
+        Map<String, String> metadata = paymentIntent.getMetadata();
+        String paymentId = metadata == null ? null : metadata.get("payment_id");
+        if (paymentId == null) {
+            logger.info("Payment intent {} is not linked to a payment.", paymentIntent.getId());
+            return;
+        }
+        paymentService.chargePaymentById(Long.valueOf(paymentId));
+        logger.info("Payment {} paid by payment intent {}.", paymentId, paymentIntent.getId());
+    }
+
+    //falls back to the unchecked deserializer when the event was sent with a different API version than the library's
+    private StripeObject dataObject(Event event) throws EventDataObjectDeserializationException {
+        EventDataObjectDeserializer deserializer = event.getDataObjectDeserializer();
+        Optional<StripeObject> object = deserializer.getObject();
+        return object.isPresent() ? object.get() : deserializer.deserializeUnsafe();
+    }
+}
@@ -5,8 +5,13 @@ import com.example.accountingapp.dto.UserDTO;
 import com.example.accountingapp.entity.Company;
 import com.example.accountingapp.entity.User;
 import com.example.accountingapp.mapper.MapperUtil;
+import com.example.accountingapp.pagination.KeysetPage;
+import com.example.accountingapp.pagination.KeysetPaginator;
+import com.example.accountingapp.pagination.KeysetRequest;
 import com.example.accountingapp.repository.UserRepository;
+import com.example.accountingapp.service.CompanyService;
 import com.example.accountingapp.service.UserService;
+import com.example.accountingapp.tenant.TenantContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,20 +22,32 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final MapperUtil mapperUtil;
+    private final TenantContextHolder tenantContextHolder;
+    private final CompanyService companyService;
 
-    public UserServiceImpl(UserRepository userRepository, MapperUtil mapperUtil) {
+    public UserServiceImpl(UserRepository userRepository, MapperUtil mapperUtil, TenantContextHolder tenantContextHolder, CompanyService companyService) {
         this.userRepository = userRepository;
+        this.tenantContextHolder = tenantContextHolder;
+        this.companyService = companyService;
         this.mapperUtil = mapperUtil;
     }
 
     @Override
     public List<UserDTO> listAllUsers() {
 
-        User loggedInUser = userRepository.findByEmail("admin@company2.com");
-        List<User> list = userRepository.findAllByCompany(loggedInUser.getCompany());
+        List<User> list = userRepository.findAllByCompany_Id(tenantContextHolder.currentCompanyId());
         return list.stream().map(user -> mapperUtil.convert(user, new UserDTO())).collect(Collectors.toList());
     }
 
+    @Override
+    public KeysetPage<UserDTO> listUsersPage(KeysetRequest request) {
+        Long companyId = tenantContextHolder.currentCompanyId();
+        return KeysetPaginator.fetch(request,
+                (id, pageable) -> userRepository.findByCompany_IdAndEmailContainingIgnoreCaseAndIdGreaterThan(companyId, request.getFilterOrEmpty(), id, pageable),
+                (id, pageable) -> userRepository.findByCompany_IdAndEmailContainingIgnoreCaseAndIdLessThan(companyId, request.getFilterOrEmpty(), id, pageable),
+                User::getId)
+                .map(user -> mapperUtil.convert(user, new UserDTO()));
+    }
 
     @Override
     public void save(UserDTO dto) {
@@ -49,6 +66,7 @@ public class UserServiceImpl implements UserService {
         convertedUser.setEnabled(user.getEnabled());
         convertedUser.setPassword(user.getPassword());
         userRepository.save(convertedUser);
+        tenantContextHolder.evictResolved();
 
         return findByEmail(dto.getEmail());
     }
@@ -58,6 +76,7 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByEmail(email);
         user.setIsDeleted(true);
         userRepository.save(user);
+        tenantContextHolder.evictResolved();
     }
 
     @Override
@@ -73,8 +92,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public CompanyDTO findByUser() {
-        User user = userRepository.findByEmail("admin@company2.com");
-        return mapperUtil.convert(user.getCompany(), new CompanyDTO());
+        return companyService.findById(tenantContextHolder.currentCompanyId());
     }
 
 }
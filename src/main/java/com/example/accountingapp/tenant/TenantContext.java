@@ -0,0 +1,18 @@
+package com.example.accountingapp.tenant;
+
+import lombok.Getter;
+
+//The signed-in user and their company, resolved once per request by TenantContextHolder.
+@Getter
+public class TenantContext {
+
+    private final Long userId;
+    private final Long companyId;
+    private final String companyTitle;
+
+    public TenantContext(Long userId, Long companyId, String companyTitle) {
+        this.userId = userId;
+        this.companyId = companyId;
+        this.companyTitle = companyTitle;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.accountingapp.tenant;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+//Drops the tenant resolved during a request so the pooled servlet thread starts the next request clean.
+@Component
+public class TenantContextFilter extends OncePerRequestFilter {
+
+    private final TenantContextHolder tenantContextHolder;
+
+    public TenantContextFilter(TenantContextHolder tenantContextHolder) {
+        this.tenantContextHolder = tenantContextHolder;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tenantContextHolder.clear();
+        }
+    }
+}
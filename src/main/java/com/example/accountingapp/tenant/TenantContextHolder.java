@@ -0,0 +1,76 @@
+package com.example.accountingapp.tenant;
+
+import com.example.accountingapp.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//Resolves the tenant on first use in a request and keeps it on the thread until TenantContextFilter clears it.
+//Work handed to other threads must be wrapped with propagate(); background workers wrap their tasks with isolate()
+//and the scheduler clears it after every run, so a pooled thread never keeps a tenant between tasks.
+//The resolved tenant is remembered per email, so a request normally resolves it without a query;
+//user and company writes call evictResolved(). There is no login yet, so the user is the one configured in tenant.user-email.
+@Component
+public class TenantContextHolder {
+
+    private static final ThreadLocal<TenantContext> CURRENT = new ThreadLocal<>();
+
+    private final UserRepository userRepository;
+    private final String userEmail;
+    private final Map<String, TenantContext> resolved = new ConcurrentHashMap<>();
+
+    public TenantContextHolder(UserRepository userRepository, @Value("${tenant.user-email:admin@company2.com}") String userEmail) {
+        this.userRepository = userRepository;
+        this.userEmail = userEmail;
+    }
+
+    public TenantContext current() {
+        TenantContext context = CURRENT.get();
+        if (context == null) {
+            context = resolved.computeIfAbsent(userEmail, email -> userRepository.findTenantContextByEmail(email)
+                    .orElseThrow(() -> new IllegalStateException("No user found for tenant email " + email)));
+            CURRENT.set(context);
+        }
+        return context;
+    }
+
+    public Long currentCompanyId() {
+        return current().getCompanyId();
+    }
+
+    public void clear() {
+        CURRENT.remove();
+    }
+
+    public void evictResolved() {
+        resolved.clear();
+    }
+
+    //for pooled threads that serve no request: drops whatever tenant the task resolved once it ends
+    public Runnable isolate(Runnable task) {
+        return () -> {
+            try {
+                task.run();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    //runs the task with the caller's tenant, restoring whatever the executing thread had before
+    public Runnable propagate(Runnable task) {
+        TenantContext captured = current();
+        return () -> {
+            TenantContext previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) CURRENT.remove();
+                else CURRENT.set(previous);
+            }
+        };
+    }
+}
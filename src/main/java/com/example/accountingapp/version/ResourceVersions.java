@@ -0,0 +1,93 @@
+package com.example.accountingapp.version;
+
+import com.example.accountingapp.tenant.TenantContext;
+import com.example.accountingapp.tenant.TenantContextHolder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//In-memory version tokens per tenant and resource, used as ETag and Last-Modified of the pages built from them.
+//A token is the time of the last write to the resource, taken from one monotonic clock so that the newest of several
+//tokens is also the page's version. Every token starts at the application start, so a restart invalidates all pages.
+//Writes bump the token only after their transaction commits: a page rendered before that still carries the old token.
+@Component
+public class ResourceVersions {
+
+    private static final Long ALL_TENANTS = 0L;
+
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    private final long startedAt = clock.get();
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final TenantContextHolder tenantContextHolder;
+
+    public ResourceVersions(TenantContextHolder tenantContextHolder) {
+        this.tenantContextHolder = tenantContextHolder;
+    }
+
+    //rows of the current tenant changed
+    public void changed(VersionedResource... resources) {
+        Long companyId = tenantContextHolder.currentCompanyId();
+        afterCommit(() -> bump(companyId, resources));
+    }
+
+    //rows of a tenant written where no tenant is resolved, such as the import workers
+    public void changed(Long companyId, VersionedResource... resources) {
+        afterCommit(() -> bump(companyId, resources));
+    }
+
+    //rows that are not kept per tenant, or whose tenant is not known where they are written
+    public void changedForAllTenants(VersionedResource... resources) {
+        afterCommit(() -> bump(ALL_TENANTS, resources));
+    }
+
+    //for writes that committed in a transaction of their own, whatever the caller's transaction does next
+    public void committedForAllTenants(VersionedResource... resources) {
+        bump(ALL_TENANTS, resources);
+    }
+
+    //answers 304 and returns true when the client's copy of a page built from these resources is still current;
+    //otherwise sets the validators for the response about to be rendered
+    public boolean checkNotModified(ServletWebRequest request, VersionedResource... resources) {
+        TenantContext tenant = tenantContextHolder.current();
+        long version = startedAt;
+        for (VersionedResource resource : resources) {
+            version = Math.max(version, versions.getOrDefault(key(tenant.getCompanyId(), resource), startedAt));
+            version = Math.max(version, versions.getOrDefault(key(ALL_TENANTS, resource), startedAt));
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        String etag = "W/\"" + tenant.getUserId() + "-" + tenant.getCompanyId() + "-" + Long.toString(version, 36) + "\"";
+        return request.checkNotModified(etag, version);
+    }
+
+    private void bump(Long companyId, VersionedResource... resources) {
+        long now = clock.updateAndGet(previous -> Math.max(previous + 1, System.currentTimeMillis()));
+        for (VersionedResource resource : resources) {
+            versions.merge(key(companyId, resource), now, Math::max);
+        }
+    }
+
+    private String key(Long companyId, VersionedResource resource) {
+        return resource + ":" + companyId;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
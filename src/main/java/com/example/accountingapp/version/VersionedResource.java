@@ -0,0 +1,8 @@
+package com.example.accountingapp.version;
+
+//Groups of rows whose changes invalidate the pages built from them
+public enum VersionedResource {
+
+    INVOICES, PRODUCTS, CLIENT_VENDORS, CATEGORIES
+
+}
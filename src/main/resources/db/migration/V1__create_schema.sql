@@ -0,0 +1,184 @@
+-- Tables as mapped by the entities in com.example.accountingapp.entity.
+-- Hibernate only validates this schema (ddl-auto=validate); every change goes into a new V<n>__*.sql file.
+
+-- invoice numbers are handed out in blocks of 50, see InvoiceNumberAllocator
+CREATE SEQUENCE sale_invoice_number_seq START WITH 100 INCREMENT BY 50;
+CREATE SEQUENCE purchase_invoice_number_seq START WITH 100 INCREMENT BY 50;
+
+-- pooled-lo id generators of InvoiceProduct and StockDetails, increment must match their increment_size
+CREATE SEQUENCE invoice_product_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE stock_details_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE company
+(
+    id                 BIGSERIAL PRIMARY KEY,
+    created_by         BIGINT       NOT NULL,
+    created_time       TIMESTAMP    NOT NULL,
+    updated_by         BIGINT       NOT NULL,
+    updated_time       TIMESTAMP    NOT NULL,
+    is_deleted         BOOLEAN DEFAULT FALSE,
+    title              VARCHAR(255) NOT NULL UNIQUE,
+    address1           VARCHAR(255),
+    address2           VARCHAR(255),
+    zip                VARCHAR(255),
+    representative     VARCHAR(255),
+    email              VARCHAR(255),
+    establishment_date DATE,
+    enabled            BOOLEAN,
+    phone              VARCHAR(255),
+    state              VARCHAR(255),
+    company_status     VARCHAR(255)
+);
+
+CREATE TABLE role
+(
+    id      BIGSERIAL PRIMARY KEY,
+    name    VARCHAR(255),
+    enabled BOOLEAN
+);
+
+CREATE TABLE users
+(
+    id           BIGSERIAL PRIMARY KEY,
+    created_by   BIGINT       NOT NULL,
+    created_time TIMESTAMP    NOT NULL,
+    updated_by   BIGINT       NOT NULL,
+    updated_time TIMESTAMP    NOT NULL,
+    is_deleted   BOOLEAN DEFAULT FALSE,
+    first_name   VARCHAR(255),
+    last_name    VARCHAR(255),
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    password     VARCHAR(255),
+    phone        VARCHAR(255),
+    enabled      BOOLEAN,
+    user_status  VARCHAR(255),
+    company_id   BIGINT REFERENCES company (id),
+    role_id      BIGINT REFERENCES role (id)
+);
+
+CREATE TABLE category
+(
+    id           BIGSERIAL PRIMARY KEY,
+    created_by   BIGINT    NOT NULL,
+    created_time TIMESTAMP NOT NULL,
+    updated_by   BIGINT    NOT NULL,
+    updated_time TIMESTAMP NOT NULL,
+    is_deleted   BOOLEAN DEFAULT FALSE,
+    description  VARCHAR(255),
+    company_id   BIGINT REFERENCES company (id),
+    enabled      BOOLEAN   NOT NULL
+);
+
+CREATE TABLE client_vendor
+(
+    id           BIGSERIAL PRIMARY KEY,
+    created_by   BIGINT       NOT NULL,
+    created_time TIMESTAMP    NOT NULL,
+    updated_by   BIGINT       NOT NULL,
+    updated_time TIMESTAMP    NOT NULL,
+    is_deleted   BOOLEAN DEFAULT FALSE,
+    company_name VARCHAR(255),
+    phone        VARCHAR(255),
+    email        VARCHAR(255) NOT NULL UNIQUE,
+    company_id   BIGINT REFERENCES company (id),
+    type         VARCHAR(255),
+    zip_code     VARCHAR(255),
+    address      VARCHAR(255),
+    state_id     VARCHAR(255),
+    enabled      BOOLEAN      NOT NULL
+);
+
+CREATE TABLE product
+(
+    id              BIGSERIAL PRIMARY KEY,
+    created_by      BIGINT    NOT NULL,
+    created_time    TIMESTAMP NOT NULL,
+    updated_by      BIGINT    NOT NULL,
+    updated_time    TIMESTAMP NOT NULL,
+    is_deleted      BOOLEAN DEFAULT FALSE,
+    name            VARCHAR(255),
+    description     VARCHAR(255),
+    category_id     BIGINT REFERENCES category (id),
+    qty             BIGINT    NOT NULL,
+    unit            VARCHAR(255),
+    low_limit_alert NUMERIC(19, 2),
+    tax             NUMERIC(19, 2),
+    company_id      BIGINT REFERENCES company (id),
+    enabled         BOOLEAN,
+    product_status  VARCHAR(255),
+    new_column      NUMERIC(19, 2)
+);
+
+CREATE TABLE invoice
+(
+    id             BIGSERIAL PRIMARY KEY,
+    created_by     BIGINT    NOT NULL,
+    created_time   TIMESTAMP NOT NULL,
+    updated_by     BIGINT    NOT NULL,
+    updated_time   TIMESTAMP NOT NULL,
+    is_deleted     BOOLEAN DEFAULT FALSE,
+    invoice_number VARCHAR(255) UNIQUE,
+    invoice_status VARCHAR(255),
+    invoice_type   VARCHAR(255),
+    invoice_date   DATE,
+    sptable_id     BIGINT REFERENCES client_vendor (id),
+    company_id     BIGINT REFERENCES company (id),
+    enabled        BOOLEAN   NOT NULL
+);
+
+CREATE TABLE invoice_product
+(
+    id           BIGINT PRIMARY KEY DEFAULT nextval('invoice_product_seq'),
+    created_by   BIGINT    NOT NULL,
+    created_time TIMESTAMP NOT NULL,
+    updated_by   BIGINT    NOT NULL,
+    updated_time TIMESTAMP NOT NULL,
+    is_deleted   BOOLEAN DEFAULT FALSE,
+    name         VARCHAR(255),
+    qty          INTEGER,
+    price        NUMERIC(19, 2),
+    tax          NUMERIC(19, 2),
+    profit       NUMERIC(19, 2),
+    enabled      BOOLEAN   NOT NULL,
+    product_id   BIGINT REFERENCES product (id),
+    invoice_id   BIGINT REFERENCES invoice (id)
+);
+
+CREATE TABLE stock_details
+(
+    id                 BIGINT PRIMARY KEY DEFAULT nextval('stock_details_seq'),
+    i_date             TIMESTAMP,
+    quantity           NUMERIC(19, 2),
+    price              NUMERIC(19, 2),
+    remaining_quantity NUMERIC(19, 2),
+    product_id         BIGINT REFERENCES product (id)
+);
+
+CREATE TABLE payment
+(
+    id             BIGSERIAL PRIMARY KEY,
+    created_by     BIGINT    NOT NULL,
+    created_time   TIMESTAMP NOT NULL,
+    updated_by     BIGINT    NOT NULL,
+    updated_time   TIMESTAMP NOT NULL,
+    is_deleted     BOOLEAN DEFAULT FALSE,
+    year           VARCHAR(255),
+    amount         INTEGER,
+    is_paid        BOOLEAN,
+    institution_id VARCHAR(255),
+    month          VARCHAR(255),
+    company_id     BIGINT REFERENCES company (id)
+);
+
+CREATE TABLE profit_loss_ledger
+(
+    id           BIGSERIAL PRIMARY KEY,
+    company_id   BIGINT       NOT NULL REFERENCES company (id),
+    invoice_type VARCHAR(255) NOT NULL,
+    period_year  INTEGER      NOT NULL,
+    period_month INTEGER      NOT NULL,
+    total_price  NUMERIC(19, 2),
+    total_tax    NUMERIC(19, 2),
+    total_qty    BIGINT,
+    UNIQUE (company_id, invoice_type, period_year, period_month)
+);
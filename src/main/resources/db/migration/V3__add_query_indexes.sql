@@ -0,0 +1,27 @@
+-- Indexes for the columns the repositories filter, join and sort on.
+-- Partial indexes repeat the entities' @Where(is_deleted=false) so JPQL queries can use them;
+-- native queries that do not filter on is_deleted get plain indexes.
+
+-- invoice lines by invoice (native findAllByInvoiceId, batched line loading, totals)
+CREATE INDEX ix_invoice_product_invoice_id ON invoice_product (invoice_id);
+CREATE INDEX ix_invoice_product_product_id ON invoice_product (product_id) WHERE is_deleted = false;
+
+-- report and ledger sums by company, type and date range
+CREATE INDEX ix_invoice_company_type_date ON invoice (company_id, invoice_type, invoice_date) WHERE is_deleted = false;
+-- last three invoices of a company (native, newest first)
+CREATE INDEX ix_invoice_company_date ON invoice (company_id, invoice_date);
+-- keyset-paginated invoice lists: invoice_type = ? AND enabled AND id > ? ORDER BY id
+CREATE INDEX ix_invoice_type_id ON invoice (invoice_type, id) WHERE is_deleted = false AND enabled = true;
+
+-- open FIFO lots of a product, oldest first
+CREATE INDEX ix_stock_details_product_open ON stock_details (product_id, i_date, id) WHERE remaining_quantity > 0;
+CREATE INDEX ix_stock_details_product_id ON stock_details (product_id);
+
+CREATE INDEX ix_client_vendor_type ON client_vendor (type) WHERE is_deleted = false;
+
+-- per-company keyset lists; users.email already has the unique index used by the tenant lookup
+CREATE INDEX ix_product_company_id ON product (company_id, id) WHERE is_deleted = false;
+CREATE INDEX ix_users_company_id ON users (company_id, id) WHERE is_deleted = false;
+CREATE INDEX ix_category_company_id ON category (company_id) WHERE is_deleted = false;
+
+CREATE INDEX ix_payment_company_year ON payment (company_id, year) WHERE is_deleted = false;
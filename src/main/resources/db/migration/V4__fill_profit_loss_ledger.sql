@@ -0,0 +1,16 @@
+-- The seed invoices were inserted directly, so fill their ledger periods once here;
+-- from now on InvoiceService keeps the ledger up to date.
+INSERT INTO profit_loss_ledger (company_id, invoice_type, period_year, period_month, total_price, total_tax, total_qty)
+SELECT v.company_id,
+       v.invoice_type,
+       EXTRACT(YEAR FROM v.invoice_date),
+       EXTRACT(MONTH FROM v.invoice_date),
+       COALESCE(SUM(i.price), 0),
+       COALESCE(SUM(i.tax), 0),
+       COALESCE(SUM(i.qty), 0)
+FROM invoice_product i
+         JOIN invoice v ON v.id = i.invoice_id
+WHERE v.invoice_status = 'APPROVED'
+  AND v.is_deleted = false
+  AND i.is_deleted = false
+GROUP BY v.company_id, v.invoice_type, EXTRACT(YEAR FROM v.invoice_date), EXTRACT(MONTH FROM v.invoice_date);
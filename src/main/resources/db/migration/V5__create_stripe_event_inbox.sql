@@ -0,0 +1,15 @@
+-- Inbox of Stripe webhook events: stored before they are handled, the event id makes a redelivery a no-op.
+CREATE TABLE stripe_event
+(
+    event_id        VARCHAR(255) PRIMARY KEY,
+    event_type      VARCHAR(255) NOT NULL,
+    payload         TEXT         NOT NULL,
+    status          VARCHAR(255) NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP    NOT NULL,
+    last_error      VARCHAR(1000),
+    received_time   TIMESTAMP    NOT NULL,
+    processed_time  TIMESTAMP
+);
+
+CREATE INDEX ix_stripe_event_due ON stripe_event (next_attempt_at) WHERE status = 'PENDING';
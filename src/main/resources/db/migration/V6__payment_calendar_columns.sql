@@ -0,0 +1,18 @@
+-- Payments carry their year and month number as integers, so the calendar of one company and year is an index range
+-- instead of a scan of every payment sorted by to_date(month, 'Month').
+ALTER TABLE payment ADD COLUMN month_ordinal INTEGER;
+
+-- the seed rows store abbreviated months ('JAN'), which PaymentMonth cannot read: store the enum names
+UPDATE payment p
+SET month         = m.name,
+    month_ordinal = m.ordinal
+FROM (VALUES (1, 'JANUARY'), (2, 'FEBRUARY'), (3, 'MARCH'), (4, 'APRIL'), (5, 'MAY'), (6, 'JUNE'),
+             (7, 'JULY'), (8, 'AUGUST'), (9, 'SEPTEMBER'), (10, 'OCTOBER'), (11, 'NOVEMBER'), (12, 'DECEMBER'))
+         AS m (ordinal, name)
+WHERE UPPER(LEFT(TRIM(p.month), 3)) = LEFT(m.name, 3);
+
+-- the seed rows store a whole date ('01/15/2022') as year; the year is its last four characters either way
+DROP INDEX ix_payment_company_year;
+ALTER TABLE payment ALTER COLUMN year TYPE INTEGER USING NULLIF(RIGHT(TRIM(year), 4), '')::INTEGER;
+
+CREATE INDEX ix_payment_company_year_month ON payment (company_id, year, month_ordinal) WHERE is_deleted = false;
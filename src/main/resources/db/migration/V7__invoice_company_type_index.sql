@@ -0,0 +1,3 @@
+-- The keyset-paginated invoice lists are per company: company_id = ? AND invoice_type = ? AND enabled AND id > ? ORDER BY id
+DROP INDEX ix_invoice_type_id;
+CREATE INDEX ix_invoice_company_type_id ON invoice (company_id, invoice_type, id) WHERE is_deleted = false AND enabled = true;
@@ -0,0 +1,73 @@
+package com.example.accountingapp.cache;
+
+import com.example.accountingapp.dto.RoleDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ReferenceCache<Long, RoleDTO> cache = new ReferenceCache<>("roles", 2, ReferenceCopies::role);
+
+    @Test
+    void loadsOnceAndServesHitsFromTheCache() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void callersCannotChangeTheCachedValue() {
+        RoleDTO first = cache.get(1L, this::load);
+        first.setName("changed by a form");
+
+        RoleDTO second = cache.get(1L, this::load);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo("role-1");
+    }
+
+    @Test
+    void invalidationDuringALoadIsNotOverwrittenByTheStaleValue() {
+        RoleDTO stale = cache.get(1L, key -> {
+            //a writer evicts the key while this load is still reading the old row
+            cache.invalidate(key);
+            return load(key);
+        });
+
+        assertThat(stale.getName()).isEqualTo("role-1");
+        assertThat(cache.stats()).containsEntry("size", 0);
+        cache.get(1L, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(loads).hasValue(4);
+        assertThat(cache.stats()).containsEntry("evictions", 2L);
+    }
+
+    @Test
+    void missingRowsAreNotCached() {
+        assertThat(cache.get(1L, key -> null)).isNull();
+        assertThat(cache.stats()).containsEntry("size", 0);
+    }
+
+    private RoleDTO load(Long id) {
+        loads.incrementAndGet();
+        return new RoleDTO(id, "role-" + id, true);
+    }
+}
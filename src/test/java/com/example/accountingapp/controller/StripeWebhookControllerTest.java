@@ -0,0 +1,80 @@
+package com.example.accountingapp.controller;
+
+import com.example.accountingapp.service.StripeEventService;
+import com.example.accountingapp.support.StripeSignatures;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.model.Event;
+import com.stripe.net.Webhook;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.example.accountingapp.support.StripeSignatures.WEBHOOK_SECRET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+//Signature checks against headers computed in StripeSignatures, no Stripe account or network involved.
+class StripeWebhookControllerTest {
+
+    private final StripeEventService stripeEventService = mock(StripeEventService.class);
+    private final StripeWebhookController controller = controller();
+
+    @Test
+    void constructEventAcceptsALocallySignedPayload() throws SignatureVerificationException {
+        String id = StripeSignatures.newEventId();
+        String payload = StripeSignatures.event(id, "customer.created");
+
+        Event event = Webhook.constructEvent(payload, StripeSignatures.header(payload), WEBHOOK_SECRET);
+
+        assertThat(event.getId()).isEqualTo(id);
+        assertThat(event.getType()).isEqualTo("customer.created");
+    }
+
+    @Test
+    void constructEventRejectsATamperedPayload() {
+        String payload = StripeSignatures.event(StripeSignatures.newEventId(), "customer.created");
+        String header = StripeSignatures.header(payload);
+
+        assertThatThrownBy(() -> Webhook.constructEvent(payload.replace("customer.created", "payment_intent.succeeded"), header, WEBHOOK_SECRET))
+                .isInstanceOf(SignatureVerificationException.class);
+    }
+
+    @Test
+    void constructEventRejectsAStaleSignature() {
+        //a captured request replayed after the default five minute tolerance
+        String payload = StripeSignatures.event(StripeSignatures.newEventId(), "customer.created");
+        String header = StripeSignatures.header(payload, WEBHOOK_SECRET, System.currentTimeMillis() / 1000 - 3600);
+
+        assertThatThrownBy(() -> Webhook.constructEvent(payload, header, WEBHOOK_SECRET))
+                .isInstanceOf(SignatureVerificationException.class);
+    }
+
+    @Test
+    void signedEventIsHandedToTheInbox() {
+        String id = StripeSignatures.newEventId();
+        String payload = StripeSignatures.event(id, "customer.created");
+
+        assertThat(controller.handleStripeEvent(payload, StripeSignatures.header(payload)).getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(stripeEventService).receive(id, "customer.created", payload);
+    }
+
+    @Test
+    void eventSignedWithAnotherSecretIsRejectedBeforeTheInbox() {
+        String payload = StripeSignatures.event(StripeSignatures.newEventId(), "customer.created");
+        String header = StripeSignatures.header(payload, "whsec_other", System.currentTimeMillis() / 1000);
+
+        assertThat(controller.handleStripeEvent(payload, header).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(controller.handleStripeEvent(payload, null).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(stripeEventService, never()).receive(any(), any(), any());
+    }
+
+    private StripeWebhookController controller() {
+        StripeWebhookController controller = new StripeWebhookController(stripeEventService);
+        ReflectionTestUtils.setField(controller, "endpointSecret", WEBHOOK_SECRET);
+        return controller;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.accountingapp.dto.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Parsing a rates response and converting an amount with RatesTable, against the same done with a Map<String, Double>
+//of boxed rates, the shape the generated Rates bean kept its currencies in.
+//Run with: mvn -Pjmh test-compile exec:exec -Djmh.args=RatesTableBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RatesTableBenchmark {
+
+    //a whole response of the rates API: 30 currencies against EUR
+    private static final String RESPONSE = "{\"amount\":1.0,\"base\":\"EUR\",\"date\":\"2026-10-16\",\"rates\":{"
+            + "\"AUD\":1.6412,\"BGN\":1.9558,\"BRL\":5.9153,\"CAD\":1.4871,\"CHF\":0.9402,\"CNY\":7.7148,\"CZK\":25.283,"
+            + "\"DKK\":7.4591,\"GBP\":0.8551,\"HKD\":8.4126,\"HUF\":398.45,\"IDR\":16912.0,\"ILS\":4.0833,\"INR\":90.914,"
+            + "\"ISK\":149.3,\"JPY\":162.5,\"KRW\":1478.1,\"MXN\":21.271,\"MYR\":4.6503,\"NOK\":11.806,\"NZD\":1.8027,"
+            + "\"PHP\":62.412,\"PLN\":4.3185,\"RON\":4.9735,\"SEK\":11.453,\"SGD\":1.4158,\"THB\":36.412,\"TRY\":37.118,"
+            + "\"USD\":1.0812,\"ZAR\":19.152}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TypeReference<Map<String, Object>> responseType = new TypeReference<Map<String, Object>>() {
+    };
+    private RatesTable table;
+    private Map<String, Double> map;
+    private final BigDecimal amount = new BigDecimal("1234.56");
+
+    @Setup
+    public void setUp() throws IOException {
+        table = parseTable().getRates();
+        map = parseMap();
+    }
+
+    @Benchmark
+    public Latest parseTable() throws IOException {
+        return objectMapper.readValue(RESPONSE, Latest.class);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Map<String, Double> parseMap() throws IOException {
+        Map<String, Double> rates = (Map<String, Double>) objectMapper.readValue(RESPONSE, responseType).get("rates");
+        rates.put("EUR", 1.0);
+        return rates;
+    }
+
+    @Benchmark
+    public BigDecimal convertTable() {
+        return table.convert(amount, "USD", "JPY");
+    }
+
+    @Benchmark
+    public BigDecimal convertMap() {
+        double from = map.get("USD"), to = map.get("JPY");
+        return amount.multiply(BigDecimal.valueOf(to)).divide(BigDecimal.valueOf(from), 2, RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public double lookupTable() {
+        return table.get("USD") + table.get("GBP") + table.get("JPY");
+    }
+
+    @Benchmark
+    public double lookupMap() {
+        return map.get("USD") + map.get("GBP") + map.get("JPY");
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.accountingapp.dto.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class RatesTableTest {
+
+    private static final String RESPONSE = "{\"amount\":1.0,\"base\":\"EUR\",\"date\":\"2026-10-16\","
+            + "\"rates\":{\"USD\":1.0812,\"GBP\":0.8551,\"XAU\":0.0004,\"ZWL\":null,\"ABC\":{\"nested\":1},\"JPY\":162.5}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void parsesEveryCurrencyInTheResponseAndLinksTheBase() throws Exception {
+        RatesTable rates = objectMapper.readValue(RESPONSE, Latest.class).getRates();
+
+        assertThat(rates.get("USD")).isEqualTo(1.0812);
+        assertThat(rates.get("JPY")).isEqualTo(162.5);
+        assertThat(rates.get("XAU")).isEqualTo(0.0004);
+        assertThat(rates.get("EUR")).isEqualTo(1.0);
+        assertThat(rates.has("ZWL")).isFalse();
+        assertThat(rates.has("ABC")).isFalse();
+        assertThat(rates.size()).isEqualTo(5);
+    }
+
+    @Test
+    void missingOrMalformedCodesHaveNoRate() throws Exception {
+        RatesTable rates = objectMapper.readValue(RESPONSE, Latest.class).getRates();
+
+        assertThat(rates.has("HRK")).isFalse();
+        assertThat(rates.has("usd")).isFalse();
+        assertThat(rates.has(null)).isFalse();
+        assertThat(rates.text("HRK")).isEmpty();
+        assertThat(rates.text("GBP")).isEqualTo("0.8551");
+    }
+
+    @Test
+    void bothConversionsRejectAnUnknownCurrency() throws Exception {
+        RatesTable rates = objectMapper.readValue(RESPONSE, Latest.class).getRates();
+
+        assertThat(rates.convert(new BigDecimal("100"), "EUR", "USD")).isEqualByComparingTo("108.12");
+        assertThat(rates.convert(100.0, "USD", "EUR")).isCloseTo(92.49, offset(0.01));
+        assertThatThrownBy(() -> rates.convert(new BigDecimal("100"), "EUR", "HRK")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rates.convert(100.0, "HRK", "EUR")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void setKeepsCodesSortedAndOverwritesExistingRates() {
+        RatesTable rates = new RatesTable();
+        rates.set("USD", 1.1);
+        rates.set("AUD", 1.6);
+        rates.set("GBP", 0.85);
+        rates.set("USD", 1.2);
+
+        assertThat(rates.size()).isEqualTo(3);
+        assertThat(rates.get("AUD")).isEqualTo(1.6);
+        assertThat(rates.get("GBP")).isEqualTo(0.85);
+        assertThat(rates.get("USD")).isEqualTo(1.2);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.accountingapp.imports;
+
+import com.example.accountingapp.export.CsvTableWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CsvInvoiceReaderTest {
+
+    private static final String HEADER = "invoice_number,invoice_type,invoice_date,status,client_vendor,product,qty,price,tax\r\n";
+
+    @Test
+    void consecutiveRecordsOfOneNumberMakeOneInvoice() throws IOException {
+        List<ImportedInvoice> invoices = readAll(HEADER +
+                "P-1,PURCHASE,2022-03-01,APPROVED,Vendor1,TV,2,250,10\r\n" +
+                "P-1,PURCHASE,2022-03-01,APPROVED,Vendor1,Safe,1,90,5\r\n" +
+                "S-1,SALE,2022-03-02,,Client1,TV,1,400,10\r\n");
+
+        assertThat(invoices).extracting(ImportedInvoice::getInvoiceNumber, ImportedInvoice::getInvoiceType,
+                        ImportedInvoice::getInvoiceDate, ImportedInvoice::getStatus, ImportedInvoice::getClientVendor, ImportedInvoice::getRow)
+                .containsExactly(tuple("P-1", "PURCHASE", "2022-03-01", "APPROVED", "Vendor1", 2),
+                        tuple("S-1", "SALE", "2022-03-02", null, "Client1", 4));
+        assertThat(invoices.get(0).getLines()).extracting(ImportedInvoice.ImportedLine::getProduct, ImportedInvoice.ImportedLine::getQty,
+                        ImportedInvoice.ImportedLine::getPrice, ImportedInvoice.ImportedLine::getTax, ImportedInvoice.ImportedLine::getRow)
+                .containsExactly(tuple("TV", "2", "250", "10", 2), tuple("Safe", "1", "90", "5", 3));
+    }
+
+    @Test
+    void aNumberThatComesBackLaterStartsAnotherInvoice() throws IOException {
+        List<ImportedInvoice> invoices = readAll(HEADER +
+                "P-1,PURCHASE,2022-03-01,,Vendor1,TV,2,250,10\r\n" +
+                "P-2,PURCHASE,2022-03-01,,Vendor1,TV,2,250,10\r\n" +
+                "P-1,PURCHASE,2022-03-01,,Vendor1,Safe,1,90,5\r\n");
+
+        assertThat(invoices).extracting(ImportedInvoice::getInvoiceNumber).containsExactly("P-1", "P-2", "P-1");
+    }
+
+    @Test
+    void columnsAreFoundByNameAndOptionalOnesMayBeLeftOut() throws IOException {
+        List<ImportedInvoice> invoices = readAll(" Price ,QTY,product,client_vendor,invoice_date,invoice_type,invoice_number\n" +
+                "250,2,TV,Vendor1,2022-03-01,PURCHASE,P-1\n");
+
+        assertThat(invoices).hasSize(1);
+        assertThat(invoices.get(0).getStatus()).isNull();
+        assertThat(invoices.get(0).getLines()).extracting(ImportedInvoice.ImportedLine::getProduct, ImportedInvoice.ImportedLine::getQty,
+                        ImportedInvoice.ImportedLine::getPrice, ImportedInvoice.ImportedLine::getTax)
+                .containsExactly(tuple("TV", "2", "250", null));
+    }
+
+    @Test
+    void blankLinesAreSkippedAndDoNotCountAsRows() throws IOException {
+        List<ImportedInvoice> invoices = readAll(HEADER + "\r\n" +
+                "P-1,PURCHASE,2022-03-01,,Vendor1,TV,2,250,10\r\n\r\n\r\n" +
+                "P-1,PURCHASE,2022-03-01,,Vendor1,Safe,1,90,5\r\n");
+
+        assertThat(invoices).hasSize(1);
+        assertThat(invoices.get(0).getLines()).extracting(ImportedInvoice.ImportedLine::getRow).containsExactly(2, 3);
+    }
+
+    @Test
+    void readsBackWhatCsvTableWriterQuotes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvTableWriter writer = new CsvTableWriter(out)) {
+            writer.writeRow("invoice_number", "invoice_type", "invoice_date", "client_vendor", "product", "qty", "price");
+            writer.writeRow("P-1", "PURCHASE", "2022-03-01", "Vendor, \"Main\" Branch", "Lamp\nwith shade", 1, "12.50");
+            writer.writeRow("P-1", "PURCHASE", "2022-03-01", "Vendor, \"Main\" Branch", "Scale", 3, "8");
+        }
+
+        List<ImportedInvoice> invoices = readAll(out.toString(StandardCharsets.UTF_8));
+
+        assertThat(invoices).hasSize(1);
+        assertThat(invoices.get(0).getClientVendor()).isEqualTo("Vendor, \"Main\" Branch");
+        //the quoted line break keeps the first line a single record
+        assertThat(invoices.get(0).getLines()).extracting(ImportedInvoice.ImportedLine::getProduct, ImportedInvoice.ImportedLine::getRow)
+                .containsExactly(tuple("Lamp\nwith shade", 2), tuple("Scale", 3));
+    }
+
+    @Test
+    void emptyFileIsRejected() {
+        assertThatThrownBy(() -> readAll("")).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("empty");
+    }
+
+    @Test
+    void headerWithoutARequiredColumnIsRejected() {
+        assertThatThrownBy(() -> readAll("invoice_number,invoice_type,invoice_date,client_vendor,product,qty\n"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("price");
+    }
+
+    @Test
+    void unclosedQuoteIsRejectedWithItsRow() {
+        assertThatThrownBy(() -> readAll(HEADER + "P-1,PURCHASE,2022-03-01,,\"Vendor1,TV,2,250,10\n"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Row 2");
+    }
+
+    private static List<ImportedInvoice> readAll(String csv) throws IOException {
+        List<ImportedInvoice> invoices = new ArrayList<>();
+        try (CsvInvoiceReader reader = new CsvInvoiceReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)))) {
+            ImportedInvoice invoice;
+            while ((invoice = reader.next()) != null) {
+                invoices.add(invoice);
+            }
+        }
+        return invoices;
+    }
+}
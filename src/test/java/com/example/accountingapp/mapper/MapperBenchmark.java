@@ -0,0 +1,99 @@
+package com.example.accountingapp.mapper;
+
+import com.example.accountingapp.dto.InvoiceDTO;
+import com.example.accountingapp.dto.InvoiceProductDTO;
+import com.example.accountingapp.entity.ClientVendor;
+import com.example.accountingapp.entity.Company;
+import com.example.accountingapp.entity.Invoice;
+import com.example.accountingapp.entity.InvoiceProduct;
+import com.example.accountingapp.entity.Product;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+//ModelMapper against the MapStruct mappers MapperUtil dispatches to, for the two conversions of every invoice list row.
+//Run with: mvn -Pjmh test-compile exec:exec -Djmh.args=MapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+
+    //the application's ModelMapper bean is a plain new ModelMapper() too
+    private ModelMapper modelMapper;
+    private MapperUtil mapperUtil;
+    private Invoice invoice;
+    private InvoiceProduct invoiceProduct;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        mapperUtil = new MapperUtil(modelMapper, new EntityDtoMapperImpl());
+
+        Company company = new Company();
+        company.setId(2L);
+        ClientVendor vendor = new ClientVendor();
+        vendor.setId(1L);
+        vendor.setCompanyName("Vendor1");
+        vendor.setCompany(company);
+        invoice = new Invoice();
+        invoice.setId(100L);
+        invoice.setInvoiceNumber("P-INV100");
+        invoice.setInvoiceStatus(InvoiceStatus.APPROVED);
+        invoice.setInvoiceType(InvoiceType.PURCHASE);
+        invoice.setInvoiceDate(LocalDate.of(2022, 3, 1));
+        invoice.setClientVendor(vendor);
+        invoice.setCompany(company);
+        invoice.setEnabled(true);
+
+        Product product = new Product();
+        product.setId(7L);
+        product.setName("TV");
+        invoiceProduct = new InvoiceProduct();
+        invoiceProduct.setId(1000L);
+        invoiceProduct.setName("TV");
+        invoiceProduct.setQty(2);
+        invoiceProduct.setPrice(new BigDecimal("250.00"));
+        invoiceProduct.setTax(new BigDecimal("10.00"));
+        invoiceProduct.setProfit(BigDecimal.ZERO);
+        invoiceProduct.setEnabled(true);
+        invoiceProduct.setProduct(product);
+        invoiceProduct.setInvoice(invoice);
+    }
+
+    @Benchmark
+    public InvoiceDTO invoiceModelMapper() {
+        return modelMapper.map(invoice, InvoiceDTO.class);
+    }
+
+    @Benchmark
+    public InvoiceDTO invoiceMapStruct() {
+        return mapperUtil.convert(invoice, new InvoiceDTO());
+    }
+
+    @Benchmark
+    public InvoiceProductDTO invoiceProductModelMapper() {
+        return modelMapper.map(invoiceProduct, InvoiceProductDTO.class);
+    }
+
+    @Benchmark
+    public InvoiceProductDTO invoiceProductMapStruct() {
+        return mapperUtil.convert(invoiceProduct, new InvoiceProductDTO());
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.accountingapp.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//The repository queries are stood in for by a sorted list of ids, answering like a Spring Data Slice query.
+class KeysetPaginatorTest {
+
+    //ids with gaps, as deleted rows leave them
+    private static final List<Long> IDS = LongStream.rangeClosed(1, 53).map(i -> i * 3).boxed().collect(Collectors.toList());
+
+    @Test
+    void forwardWalkVisitsEveryRowOnceInOrder() {
+        List<KeysetPage<Long>> pages = walkForward("asc", 10);
+
+        assertThat(pages).hasSize(6);
+        assertThat(pages.stream().flatMap(page -> page.getContent().stream())).containsExactlyElementsOf(IDS);
+        assertThat(pages.get(0).hasPrevious()).isFalse();
+        assertThat(pages.get(5).hasNext()).isFalse();
+        assertThat(pages.get(5).getContent()).hasSize(3);
+    }
+
+    @Test
+    void descendingWalkVisitsEveryRowOnceInReverseOrder() {
+        List<Long> descending = new ArrayList<>(IDS);
+        Collections.reverse(descending);
+
+        List<KeysetPage<Long>> pages = walkForward("desc", 10);
+
+        assertThat(pages.stream().flatMap(page -> page.getContent().stream())).containsExactlyElementsOf(descending);
+        assertThat(pages.get(pages.size() - 1).hasNext()).isFalse();
+    }
+
+    @Test
+    void previousCursorsLeadBackThroughTheSamePages() {
+        for (String sort : new String[]{"asc", "desc"}) {
+            List<KeysetPage<Long>> forward = walkForward(sort, 10);
+
+            KeysetPage<Long> page = forward.get(forward.size() - 1);
+            for (int i = forward.size() - 2; i >= 0; i--) {
+                page = fetch(request(null, page.getPreviousCursor(), 10, sort));
+                assertThat(page.getContent()).as(sort + " page " + i).containsExactlyElementsOf(forward.get(i).getContent());
+                assertThat(page.hasNext()).isTrue();
+            }
+            assertThat(page.hasPrevious()).as(sort + " first page").isFalse();
+        }
+    }
+
+    @Test
+    void pageAfterTheLastRowIsEmpty() {
+        KeysetPage<Long> page = fetch(request(IDS.get(IDS.size() - 1), null, 10, "asc"));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    void pageSizeFallsBackToTheDefaultAndIsCapped() {
+        assertThat(fetch(request(null, null, 0, null)).getContent()).hasSize(KeysetRequest.DEFAULT_SIZE);
+        assertThat(request(null, null, 10_000, null).getPageSize()).isEqualTo(KeysetRequest.MAX_SIZE);
+    }
+
+    @Test
+    void mapKeepsTheCursors() {
+        KeysetPage<Long> page = fetch(request(IDS.get(9), null, 10, "asc"));
+
+        KeysetPage<String> mapped = page.map(id -> "#" + id);
+
+        assertThat(mapped.getContent()).first().isEqualTo("#" + IDS.get(10));
+        assertThat(mapped.getPreviousCursor()).isEqualTo(page.getPreviousCursor());
+        assertThat(mapped.getNextCursor()).isEqualTo(page.getNextCursor());
+    }
+
+    private List<KeysetPage<Long>> walkForward(String sort, int size) {
+        List<KeysetPage<Long>> pages = new ArrayList<>();
+        KeysetPage<Long> page = fetch(request(null, null, size, sort));
+        pages.add(page);
+        while (page.hasNext()) {
+            page = fetch(request(page.getNextCursor(), null, size, sort));
+            pages.add(page);
+        }
+        return pages;
+    }
+
+    private static KeysetPage<Long> fetch(KeysetRequest request) {
+        return KeysetPaginator.fetch(request,
+                (cursor, pageable) -> slice(id -> id > cursor, pageable),
+                (cursor, pageable) -> slice(id -> id < cursor, pageable),
+                id -> id);
+    }
+
+    private static Slice<Long> slice(LongPredicate where, Pageable pageable) {
+        boolean ascending = pageable.getSort().getOrderFor("id").getDirection() == Sort.Direction.ASC;
+        List<Long> matching = IDS.stream().filter(where::test).collect(Collectors.toList());
+        if (!ascending) Collections.reverse(matching);
+        List<Long> content = matching.subList(0, Math.min(pageable.getPageSize(), matching.size()));
+        return new SliceImpl<>(new ArrayList<>(content), pageable, matching.size() > pageable.getPageSize());
+    }
+
+    private static KeysetRequest request(Long after, Long before, Integer size, String sort) {
+        KeysetRequest request = new KeysetRequest();
+        request.setAfter(after);
+        request.setBefore(before);
+        request.setSize(size);
+        request.setSort(sort);
+        return request;
+    }
+}
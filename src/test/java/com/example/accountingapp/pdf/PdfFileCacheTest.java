@@ -0,0 +1,99 @@
+package com.example.accountingapp.pdf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PdfFileCacheTest {
+
+    private static final long LONG_GRACE_MS = 60_000;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void renderedVersionIsServedFromDiskAfterwards() throws IOException {
+        PdfFileCache cache = new PdfFileCache(directory.toString(), LONG_GRACE_MS);
+
+        Path first = cache.get("invoice-1", "v1", this::render);
+        Path second = cache.get("invoice-1", "v1", this::render);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(renders).hasValue(1);
+        assertThat(Files.readString(first)).isEqualTo("pdf 1");
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L).containsEntry("hitRate", 0.5);
+    }
+
+    @Test
+    void newVersionRetiresTheOldOneUntilTheGracePeriodHasPassed() throws IOException {
+        PdfFileCache cache = new PdfFileCache(directory.toString(), LONG_GRACE_MS);
+        Path old = cache.get("invoice-1", "v1", this::render);
+        Path other = cache.get("invoice-12", "v1", this::render);
+
+        Path current = cache.get("invoice-1", "v2", this::render);
+        cache.deleteRetired();
+
+        //a response handed the old path may still be sending it; another invoice whose name starts alike is untouched
+        assertThat(cache.stats()).containsEntry("retired", 1);
+        assertThat(old).exists();
+        assertThat(other).exists();
+        assertThat(current).exists();
+    }
+
+    @Test
+    void retiredVersionIsDeletedOnceTheGracePeriodHasPassed() throws IOException {
+        PdfFileCache cache = new PdfFileCache(directory.toString(), 0);
+        Path old = cache.get("invoice-1", "v1", this::render);
+        Path current = cache.get("invoice-1", "v2", this::render);
+
+        cache.deleteRetired();
+
+        assertThat(old).doesNotExist();
+        assertThat(current).exists();
+        assertThat(cache.stats()).containsEntry("retired", 0);
+    }
+
+    @Test
+    void versionThatComesBackWithinTheGracePeriodIsLiveAgain() throws IOException {
+        PdfFileCache cache = new PdfFileCache(directory.toString(), 0);
+        Path first = cache.get("invoice-1", "v1", this::render);
+        cache.get("invoice-1", "v2", this::render);
+
+        //the edit is undone: v1 is a hit again and must survive the next sweep
+        assertThat(cache.get("invoice-1", "v1", this::render)).isEqualTo(first);
+        cache.deleteRetired();
+
+        assertThat(first).exists();
+        assertThat(renders).hasValue(2);
+    }
+
+    @Test
+    void failedRenderLeavesNoFileBehind() throws IOException {
+        PdfFileCache cache = new PdfFileCache(directory.toString(), LONG_GRACE_MS);
+
+        assertThatThrownBy(() -> cache.get("invoice-1", "v1", out -> {
+            out.write("half a pdf".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("template failed");
+        })).isInstanceOf(IOException.class);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private void render(OutputStream out) throws IOException {
+        out.write(("pdf " + renders.incrementAndGet()).getBytes(StandardCharsets.UTF_8));
+    }
+}
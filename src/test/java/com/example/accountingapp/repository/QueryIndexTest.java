@@ -0,0 +1,95 @@
+package com.example.accountingapp.repository;
+
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Each repository query the V3/V6/V7 indexes were written for must be able to use its index. The seed tables are small
+//enough that the planner would pick a sequential scan anyway, so sequential and bitmap scans are switched off for the
+//EXPLAIN: a query the index cannot serve still falls back to a seq scan and fails the assertion, and a plain index scan
+//shows whether the index also delivers the ORDER BY.
+//The statements are the SQL the repositories send (native queries verbatim, JPQL as Hibernate renders it,
+//with @Where(is_deleted=false) appended), with literals in place of the parameters.
+class QueryIndexTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void linesOfAnInvoiceUseTheInvoiceIdIndex() {
+        //InvoiceProductRepository.findAllByInvoiceId
+        assertThat(plan("SELECT * FROM invoice_product i where i.invoice_id = 1"))
+                .contains("ix_invoice_product_invoice_id");
+    }
+
+    @Test
+    void linesOfAProductUseThePartialProductIndex() {
+        assertThat(plan("SELECT * FROM invoice_product i WHERE i.product_id = 1 AND (i.is_deleted = false)"))
+                .contains("ix_invoice_product_product_id");
+    }
+
+    @Test
+    void reportRangeUsesTheCompanyTypeDateIndex() {
+        assertThat(plan("SELECT * FROM invoice i WHERE i.company_id = 2 AND i.invoice_type = 'SALE' " +
+                "AND i.invoice_date BETWEEN '2022-01-01' AND '2022-12-31' AND (i.is_deleted = false)"))
+                .contains("ix_invoice_company_type_date");
+    }
+
+    @Test
+    void lastThreeInvoicesUseTheCompanyDateIndex() {
+        //InvoiceRepository.findLast3InvoiceByDate, native and without the is_deleted filter
+        assertThat(plan("SELECT * FROM invoice i WHERE i.company_id = 2 ORDER BY i.invoice_date DESC LIMIT 3"))
+                .contains("ix_invoice_company_date");
+    }
+
+    @Test
+    void invoicePagesUseTheCompanyTypeIdIndexInBothDirections() {
+        //InvoiceRepository.findEnabledPageByInvoiceTypeAndIdGreaterThan / LessThan
+        String forward = plan("SELECT * FROM invoice i WHERE i.company_id = 2 AND i.invoice_type = 'SALE' AND i.enabled = true " +
+                "AND lower(i.invoice_number) LIKE '%' AND i.id > 0 AND (i.is_deleted = false) ORDER BY i.id ASC LIMIT 21");
+        String backward = plan("SELECT * FROM invoice i WHERE i.company_id = 2 AND i.invoice_type = 'SALE' AND i.enabled = true " +
+                "AND lower(i.invoice_number) LIKE '%' AND i.id < 1000 AND (i.is_deleted = false) ORDER BY i.id DESC LIMIT 21");
+        assertThat(forward).contains("ix_invoice_company_type_id").doesNotContain("Sort");
+        assertThat(backward).contains("ix_invoice_company_type_id").doesNotContain("Sort");
+    }
+
+    @Test
+    void openLotsUseTheOpenLotIndexWithoutASort() {
+        //StockDetailsRepository.findOpenLotsByProductId: the index order is the FIFO order
+        String plan = plan("SELECT * FROM stock_details s WHERE s.product_id = 1 AND s.remaining_quantity > 0 " +
+                "ORDER BY s.i_date, s.id");
+        assertThat(plan).contains("ix_stock_details_product_open").doesNotContain("Sort");
+    }
+
+    @Test
+    void productsOfACompanyUseTheCompanyIndex() {
+        //ProductRepository.findAllByCompany_Id
+        assertThat(plan("SELECT * FROM product p WHERE p.company_id = 2 AND (p.is_deleted = false)"))
+                .contains("ix_product_company_id");
+    }
+
+    @Test
+    void paymentCalendarUsesTheCompanyYearMonthIndexWithoutASort() {
+        //PaymentRepository.findCalendarByCompanyIdAndYear
+        String plan = plan("SELECT * FROM payment p WHERE p.company_id = 2 AND p.year = 2022 AND (p.is_deleted = false) " +
+                "ORDER BY p.month_ordinal");
+        assertThat(plan).contains("ix_payment_company_year_month").doesNotContain("Sort");
+    }
+
+    //SET LOCAL only lasts until the end of the transaction, so the EXPLAIN has to run on the same connection inside it
+    private String plan(String sql) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+        });
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.client.CurrencyClient;
+import com.example.accountingapp.dto.client.Latest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//The service against the real Feign client, which calls a stub of the rates API on a local port: no network involved.
+//Only the Feign client and the JSON converters are in the context, and every test builds a service of its own.
+@SpringBootTest(classes = CurrencyRateServiceImplTest.FeignOnly.class)
+class CurrencyRateServiceImplTest {
+
+    private static final String RESPONSE = "{\"amount\":1.0,\"base\":\"EUR\",\"date\":\"2026-10-16\","
+            + "\"rates\":{\"USD\":1.0812,\"GBP\":0.8551,\"JPY\":162.5}}";
+    private static final String NEWER_RESPONSE = RESPONSE.replace("1.0812", "1.0900");
+
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+    private static final AtomicReference<StubResponse> RESPONDER = new AtomicReference<>();
+    private static final HttpServer STUB = startStub();
+
+    @Configuration
+    @EnableFeignClients(clients = CurrencyClient.class)
+    @ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, FeignAutoConfiguration.class})
+    static class FeignOnly {
+    }
+
+    @DynamicPropertySource
+    static void stubUrl(DynamicPropertyRegistry registry) {
+        registry.add("currency.client.url", () -> "http://localhost:" + STUB.getAddress().getPort() + "/");
+    }
+
+    @Autowired
+    private CurrencyClient currencyClient;
+
+    private CurrencyRateServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        REQUESTS.set(0);
+        RESPONDER.set(exchange -> respond(exchange, 200, RESPONSE));
+        service = new CurrencyRateServiceImpl(currencyClient);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.stop(0);
+    }
+
+    @Test
+    void warmCacheAnswersWithoutCallingTheApi() {
+        service.refresh();
+
+        Latest first = service.getLatest();
+        Latest second = service.getLatest();
+
+        assertThat(first.getRates().get("USD")).isEqualTo(1.0812);
+        assertThat(first.getRates().get("EUR")).isEqualTo(1.0);
+        assertThat(second).isSameAs(first);
+        assertThat(REQUESTS).hasValue(1);
+        assertThat(service.getStats()).containsEntry("hits", 2L).containsEntry("misses", 0L)
+                .containsEntry("refreshes", 1L).containsEntry("refreshFailures", 0L);
+    }
+
+    @Test
+    void failedRefreshKeepsServingTheStaleRates() {
+        service.refresh();
+        RESPONDER.set(exchange -> respond(exchange, 500, "{\"message\":\"down\"}"));
+
+        service.refresh();
+
+        assertThat(service.getLatest().getRates().get("USD")).isEqualTo(1.0812);
+        assertThat(service.getStats()).containsEntry("refreshes", 1L).containsEntry("refreshFailures", 1L);
+
+        RESPONDER.set(exchange -> respond(exchange, 200, NEWER_RESPONSE));
+        service.refresh();
+
+        assertThat(service.getLatest().getRates().get("USD")).isEqualTo(1.09);
+        assertThat(service.getStats()).containsEntry("refreshes", 2L).containsEntry("refreshFailures", 1L);
+    }
+
+    @Test
+    void coldCacheWithTheApiDownAnswersEmptyRates() {
+        RESPONDER.set(exchange -> respond(exchange, 503, ""));
+
+        Latest latest = service.getLatest();
+
+        assertThat(latest.getRates().size()).isZero();
+        assertThat(service.getStats()).containsEntry("misses", 1L).containsEntry("refreshFailures", 1L)
+                .containsEntry("refreshAgeMillis", -1L);
+    }
+
+    @Test
+    void concurrentColdCallersShareOneFetch() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RESPONDER.set(exchange -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, RESPONSE);
+        });
+
+        int callers = 8;
+        ExecutorService threads = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Latest>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(threads.submit(service::getLatest));
+            }
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+            //well inside feign's read timeout: the other callers are now waiting on the fetch in flight
+            Thread.sleep(300);
+            release.countDown();
+
+            Latest first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Latest> each : results) {
+                assertThat(each.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertThat(REQUESTS).hasValue(1);
+        assertThat(service.getStats()).containsEntry("misses", (long) callers).containsEntry("refreshes", 1L);
+    }
+
+    private static HttpServer startStub() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/latest", exchange -> {
+                REQUESTS.incrementAndGet();
+                RESPONDER.get().respond(exchange);
+            });
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StubResponse {
+        void respond(HttpExchange exchange) throws IOException;
+    }
+}
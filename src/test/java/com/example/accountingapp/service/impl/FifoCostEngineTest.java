@@ -0,0 +1,99 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.entity.Product;
+import com.example.accountingapp.entity.StockDetails;
+import com.example.accountingapp.repository.StockDetailsRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FifoCostEngineTest {
+
+    private static final Long PRODUCT_ID = 7L;
+    private static final Long OTHER_PRODUCT_ID = 8L;
+
+    private final StockDetailsRepository stockDetailsRepository = mock(StockDetailsRepository.class);
+    private final FifoCostEngine fifoCostEngine = new FifoCostEngine(stockDetailsRepository);
+
+    @Test
+    void consumesOldestLotsFirst() {
+        StockDetails older = lot(1L, PRODUCT_ID, "10", 5);
+        StockDetails newer = lot(2L, PRODUCT_ID, "12", 5);
+        openLots(older, newer);
+        FifoCostEngine.Costing costing = fifoCostEngine.lockOpenLots(List.of(PRODUCT_ID));
+
+        assertThat(costing.consume(PRODUCT_ID, 7)).isEqualByComparingTo("74");
+        assertThat(costing.consume(PRODUCT_ID, 3)).isEqualByComparingTo("36");
+
+        assertThat(older.getRemainingQuantity()).isEqualTo(BigInteger.ZERO);
+        assertThat(newer.getRemainingQuantity()).isEqualTo(BigInteger.ZERO);
+        assertThat(costing.changedLots()).containsExactly(older, newer);
+        verify(stockDetailsRepository, never()).findLastUnitCost(PRODUCT_ID);
+    }
+
+    @Test
+    void linesOfOneProductShareItsQueue() {
+        StockDetails lot = lot(1L, PRODUCT_ID, "10", 5);
+        openLots(lot, lot(2L, OTHER_PRODUCT_ID, "99", 5));
+        FifoCostEngine.Costing costing = fifoCostEngine.lockOpenLots(List.of(PRODUCT_ID, OTHER_PRODUCT_ID));
+
+        costing.consume(PRODUCT_ID, 2);
+        costing.consume(PRODUCT_ID, 2);
+
+        assertThat(lot.getRemainingQuantity()).isEqualTo(BigInteger.ONE);
+        assertThat(costing.changedLots()).containsExactly(lot);
+    }
+
+    @Test
+    void costsUnitsBeyondTheLotsAtTheLastLotPrice() {
+        openLots(lot(1L, PRODUCT_ID, "10", 2));
+
+        assertThat(fifoCostEngine.lockOpenLots(List.of(PRODUCT_ID)).consume(PRODUCT_ID, 3)).isEqualByComparingTo("30");
+    }
+
+    @Test
+    void productWithoutOpenLotsIsCostedAtItsLastLotPrice() {
+        openLots();
+        when(stockDetailsRepository.findLastUnitCost(PRODUCT_ID)).thenReturn(List.of(new BigDecimal("15")));
+        FifoCostEngine.Costing costing = fifoCostEngine.lockOpenLots(List.of(PRODUCT_ID));
+
+        assertThat(costing.consume(PRODUCT_ID, 2)).isEqualByComparingTo("30");
+        assertThat(costing.changedLots()).isEmpty();
+    }
+
+    @Test
+    void lotsAreLockedInProductIdOrder() {
+        openLots();
+
+        fifoCostEngine.lockOpenLots(Arrays.asList(9L, 3L, 5L));
+
+        verify(stockDetailsRepository).findOpenLotsByProductIdInForUpdate(argThat(ids -> List.copyOf(ids).equals(List.of(3L, 5L, 9L))));
+    }
+
+    private void openLots(StockDetails... lots) {
+        when(stockDetailsRepository.findOpenLotsByProductIdInForUpdate(anyCollection())).thenReturn(Arrays.asList(lots));
+    }
+
+    private static StockDetails lot(Long id, Long productId, String unitCost, long remaining) {
+        Product product = new Product();
+        product.setId(productId);
+        StockDetails lot = new StockDetails();
+        lot.setId(id);
+        lot.setProduct(product);
+        lot.setPrice(new BigDecimal(unitCost));
+        lot.setQuantity(BigInteger.valueOf(remaining));
+        lot.setRemainingQuantity(BigInteger.valueOf(remaining));
+        return lot;
+    }
+}
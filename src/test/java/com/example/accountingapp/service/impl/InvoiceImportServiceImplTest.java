@@ -0,0 +1,151 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.InvoiceImportReport;
+import com.example.accountingapp.dto.projection.InvoiceTotalsRow;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.imports.ImportFormat;
+import com.example.accountingapp.service.InvoiceImportService;
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+//Imports CSV uploads into the real schema: what is rejected and why, chunks of invoice-import.chunk-lines lines,
+//the ledger totals of approved invoices, two uploads of the same numbers at once, and the lines written per second.
+class InvoiceImportServiceImplTest extends PostgresIntegrationTest {
+
+    private static final String HEADER = "invoice_number,invoice_type,invoice_date,status,client_vendor,product,qty,price,tax\n";
+    //the throughput the import was built for
+    private static final int TARGET_LINES_PER_SECOND = 10_000;
+
+    @Autowired
+    private InvoiceImportService invoiceImportService;
+
+    @Autowired
+    private ProfitLossLedgerService profitLossLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData testData;
+    private String product;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+        product = jdbcTemplate.queryForObject("SELECT name FROM product WHERE id = ?", String.class, testData.product());
+        prefix = "T-I-" + UUID.randomUUID() + "-";
+    }
+
+    @Test
+    void badInvoicesAndTakenNumbersAreRejectedAndTheRestIsImported() throws IOException {
+        long existing = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+        BigDecimal before = purchaseTotal();
+
+        InvoiceImportReport report = importCsv(HEADER +
+                prefix + "1,PURCHASE,2022-03-01,APPROVED,Vendor1," + product + ",2,250,10\n" +
+                prefix + "1,PURCHASE,2022-03-01,APPROVED,Vendor1," + product + ",1,90,5\n" +
+                prefix + "2,PURCHASE,2022-03-01,APPROVED,Vendor1,no such product,1,90,5\n" +
+                testData.invoiceNumber(existing) + ",PURCHASE,2022-03-01,APPROVED,Vendor1," + product + ",1,90,5\n" +
+                prefix + "3,PURCHASE,2022-03-01,,Vendor1," + product + ",1,40,4\n");
+
+        assertThat(report.getAbortedBecause()).isNull();
+        assertThat(report.getInvoicesImported()).isEqualTo(2);
+        assertThat(report.getLinesImported()).isEqualTo(3);
+        assertThat(report.getInvoicesRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(InvoiceImportReport.RowError::getRow, InvoiceImportReport.RowError::getMessage)
+                .containsExactlyInAnyOrder(tuple(4, "line 1: unknown or ambiguous product no such product"),
+                        tuple(5, "invoice number already exists"));
+        //only the approved invoice reaches the ledger
+        assertThat(purchaseTotal().subtract(before)).isEqualByComparingTo("340");
+    }
+
+    @Test
+    void largeUploadIsWrittenInChunksAtTheTargetRate() throws IOException {
+        int invoices = 2_000;
+        int linesPerInvoice = 5;
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < invoices; i++) {
+            for (int line = 0; line < linesPerInvoice; line++) {
+                csv.append(prefix).append(i).append(",PURCHASE,2022-04-01,APPROVED,Vendor1,").append(product).append(",1,10,1\n");
+            }
+        }
+        BigDecimal before = purchaseTotal();
+
+        long started = System.nanoTime();
+        InvoiceImportReport report = importCsv(csv.toString());
+        long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        long linesPerSecond = report.getLinesImported() * 1000 / millis;
+        System.out.printf("invoice import: %d lines in %d ms, %d lines/s (target %d)%n",
+                report.getLinesImported(), millis, linesPerSecond, TARGET_LINES_PER_SECOND);
+
+        //10 000 lines are ten chunks of invoice-import.chunk-lines, each committed on its own
+        assertThat(report.getInvoicesImported()).isEqualTo(invoices);
+        assertThat(report.getLinesImported()).isEqualTo((long) invoices * linesPerInvoice);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM invoice_product p JOIN invoice v ON v.id = p.invoice_id " +
+                "WHERE v.invoice_number LIKE ?", Long.class, prefix + "%")).isEqualTo((long) invoices * linesPerInvoice);
+        assertThat(purchaseTotal().subtract(before)).isEqualByComparingTo(BigDecimal.valueOf(10L * invoices * linesPerInvoice));
+    }
+
+    @Test
+    void concurrentUploadsOfTheSameNumbersImportEachInvoiceOnce() throws Exception {
+        int invoices = 1_500;
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < invoices; i++) {
+            csv.append(prefix).append(i).append(",PURCHASE,2022-05-01,APPROVED,Vendor1,").append(product).append(",1,10,1\n");
+        }
+        BigDecimal before = purchaseTotal();
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<InvoiceImportReport> first = threads.submit(() -> {
+                start.await();
+                return importCsv(csv.toString());
+            });
+            Future<InvoiceImportReport> second = threads.submit(() -> {
+                start.await();
+                return importCsv(csv.toString());
+            });
+            start.countDown();
+            InvoiceImportReport one = first.get(120, TimeUnit.SECONDS);
+            InvoiceImportReport other = second.get(120, TimeUnit.SECONDS);
+
+            assertThat(one.getInvoicesImported() + other.getInvoicesImported()).isEqualTo(invoices);
+            assertThat(one.getInvoicesRejected() + other.getInvoicesRejected()).isEqualTo(invoices);
+        } finally {
+            threads.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM invoice WHERE invoice_number LIKE ?", Long.class, prefix + "%"))
+                .isEqualTo(invoices);
+        assertThat(purchaseTotal().subtract(before)).isEqualByComparingTo(BigDecimal.valueOf(10L * invoices));
+    }
+
+    private InvoiceImportReport importCsv(String csv) throws IOException {
+        return invoiceImportService.importInvoices(ImportFormat.CSV, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private BigDecimal purchaseTotal() {
+        InvoiceTotalsRow totals = profitLossLedgerService.totalsByCompany(TestData.COMPANY_ID).get(InvoiceType.PURCHASE);
+        return totals == null ? BigDecimal.ZERO : totals.getTotalPrice();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.InvoiceDTO;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.pagination.KeysetRequest;
+import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.SqlCounter;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//The invoice lists of the current tenant (Company2), read from the database: which invoices they show, and that the
+//statements they send do not grow with the number of invoices and lines listed.
+class InvoiceListTest extends PostgresIntegrationTest {
+
+    private static final int ADDED_INVOICES = 200;
+    private static final int RUNS = 5;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+    }
+
+    @Test
+    void invoicesOfAnotherCompanyAreNotListed() {
+        long own = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+        long other = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+        jdbcTemplate.update("UPDATE invoice SET company_id = 3 WHERE id = ?", other);
+        try {
+            assertThat(numbers(invoiceService.listAllByInvoiceType(InvoiceType.SALE)))
+                    .contains(testData.invoiceNumber(own)).doesNotContain(testData.invoiceNumber(other));
+            assertThat(numbers(invoiceService.listPageByInvoiceType(InvoiceType.SALE, filter(testData.invoiceNumber(own))).getContent()))
+                    .containsExactly(testData.invoiceNumber(own));
+            assertThat(invoiceService.listPageByInvoiceType(InvoiceType.SALE, filter(testData.invoiceNumber(other))).getContent())
+                    .isEmpty();
+        } finally {
+            testData.deleteInvoice(own);
+            testData.deleteInvoice(other);
+        }
+    }
+
+    @Test
+    void listStatementsDoNotGrowWithTheInvoices() {
+        long product = testData.product();
+        List<Long> added = new ArrayList<>();
+        try {
+            //warm-up: tenant, Hibernate query plans, JIT
+            invoiceService.listAllByInvoiceType(InvoiceType.SALE);
+            long[] fewer = listMeasured();
+            for (int i = 0; i < ADDED_INVOICES; i++) {
+                long invoiceId = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+                testData.lines(invoiceId, product, 3, 1, "10");
+                added.add(invoiceId);
+            }
+            long[] more = listMeasured();
+            System.out.printf("sales invoice list: %d invoices %d statements %d ms, %d invoices %d statements %d ms%n",
+                    fewer[0], fewer[1], fewer[2], more[0], more[1], more[2]);
+
+            //the invoices with their parties, then all of their lines
+            assertThat(more[0]).isGreaterThanOrEqualTo(fewer[0] + ADDED_INVOICES);
+            assertThat(more[1]).isEqualTo(fewer[1]).isLessThanOrEqualTo(2);
+
+            KeysetRequest small = filter("T-S-");
+            small.setSize(10);
+            KeysetRequest large = filter("T-S-");
+            large.setSize(ADDED_INVOICES);
+            int smallPage = SqlCounter.count(() -> assertThat(invoiceService.listPageByInvoiceType(InvoiceType.SALE, small).getContent()).hasSize(10));
+            int largePage = SqlCounter.count(() -> assertThat(invoiceService.listPageByInvoiceType(InvoiceType.SALE, large).getContent()).hasSize(ADDED_INVOICES));
+            assertThat(largePage).isEqualTo(smallPage);
+        } finally {
+            added.forEach(testData::deleteInvoice);
+        }
+    }
+
+    //invoices listed, statements of the last run and the median latency of RUNS lists
+    private long[] listMeasured() {
+        long[] millis = new long[RUNS];
+        int statements = 0;
+        int[] listed = new int[1];
+        for (int run = 0; run < RUNS; run++) {
+            long started = System.nanoTime();
+            statements = SqlCounter.count(() -> listed[0] = invoiceService.listAllByInvoiceType(InvoiceType.SALE).size());
+            millis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        }
+        Arrays.sort(millis);
+        return new long[]{listed[0], statements, millis[RUNS / 2]};
+    }
+
+    private KeysetRequest filter(String filter) {
+        KeysetRequest request = new KeysetRequest();
+        request.setFilter(filter);
+        return request;
+    }
+
+    private List<String> numbers(List<InvoiceDTO> invoices) {
+        return invoices.stream().map(InvoiceDTO::getInvoiceNumber).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.repository.InvoiceRepository;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceNumberAllocatorTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 400;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Test
+    void concurrentNodesNeverHandOutTheSameNumber() throws Exception {
+        //two allocators stand for two application nodes drawing blocks from the same sequence
+        List<InvoiceNumberAllocator> nodes = Arrays.asList(new InvoiceNumberAllocator(invoiceRepository), new InvoiceNumberAllocator(invoiceRepository));
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            InvoiceNumberAllocator node = nodes.get(t % nodes.size());
+            results.add(pool.submit(() -> {
+                start.await();
+                List<String> numbers = new ArrayList<>();
+                for (int i = 0; i < NUMBERS_PER_THREAD; i++) {
+                    numbers.add(node.next(InvoiceType.SALE));
+                }
+                return numbers;
+            }));
+        }
+
+        start.countDown();
+        Set<String> handedOut = new HashSet<>();
+        try {
+            for (Future<List<String>> result : results) {
+                handedOut.addAll(result.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(handedOut).hasSize(THREADS * NUMBERS_PER_THREAD).allMatch(number -> number.startsWith("S-INV"));
+    }
+
+    @Test
+    void numbersHandedOutAfterAnImportStartAboveTheImportedOnes() {
+        InvoiceNumberAllocator allocator = new InvoiceNumberAllocator(invoiceRepository);
+        long imported = number(allocator.next(InvoiceType.PURCHASE)) + 10_000;
+
+        allocator.skipPast(InvoiceType.PURCHASE, imported);
+
+        assertThat(number(allocator.next(InvoiceType.PURCHASE))).isGreaterThan(imported);
+    }
+
+    @Test
+    void skippingBackwardsNeverRewindsTheSequence() {
+        InvoiceNumberAllocator allocator = new InvoiceNumberAllocator(invoiceRepository);
+        long current = number(allocator.next(InvoiceType.PURCHASE));
+
+        allocator.skipPast(InvoiceType.PURCHASE, 1);
+
+        assertThat(number(allocator.next(InvoiceType.PURCHASE))).isGreaterThan(current);
+    }
+
+    private static long number(String invoiceNumber) {
+        return Long.parseLong(invoiceNumber.substring("P-INV".length()));
+    }
+}
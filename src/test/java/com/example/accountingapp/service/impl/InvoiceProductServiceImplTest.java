@@ -0,0 +1,86 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.InvoiceProductDTO;
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.service.InvoiceProductService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvoiceProductServiceImplTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int LINES_PER_THREAD = 60;
+
+    @Autowired
+    private InvoiceProductService invoiceProductService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentLinesOnOneInvoiceAllGetTheirOwnId() throws Exception {
+        long invoiceId = new TestData(jdbcTemplate).invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < LINES_PER_THREAD; i++) {
+                    invoiceProductService.addInvoiceProductByInvoiceId(invoiceId, line());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM invoice_product WHERE invoice_id = ?", Long.class, invoiceId);
+        assertThat(ids).hasSize(THREADS * LINES_PER_THREAD).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void plainSqlInsertsShareTheSequenceWithHibernate() {
+        TestData testData = new TestData(jdbcTemplate);
+        long invoiceId = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+
+        invoiceProductService.addInvoiceProductByInvoiceId(invoiceId, line());
+        long sqlLineId = testData.line(invoiceId, testData.productId("TV"), 1, "10");
+        invoiceProductService.addInvoiceProductByInvoiceId(invoiceId, line());
+
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM invoice_product WHERE invoice_id = ?", Long.class, invoiceId);
+        assertThat(ids).hasSize(3).doesNotHaveDuplicates().contains(sqlLineId);
+    }
+
+    private static InvoiceProductDTO line() {
+        InvoiceProductDTO line = new InvoiceProductDTO();
+        line.setName("TV");
+        line.setQty(1);
+        line.setPrice(new BigDecimal("100.00"));
+        line.setTax(BigDecimal.TEN);
+        line.setEnabled(true);
+        return line;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.service.InvoiceProductService;
+import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.SqlCounter;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//The multi-row writes of approving, enabling and disabling an invoice are set-based or batched: the number of statements
+//must not grow with the number of lines.
+class InvoiceServiceImplTest extends PostgresIntegrationTest {
+
+    private static final List<String> PRODUCTS = Arrays.asList("TV", "Dishwasher", "Doorbell Camera", "Safe", "Reading Lamp", "Oven", "Scale");
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private InvoiceProductService invoiceProductService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+        //first calls resolve the tenant and warm Hibernate up, neither belongs to the counts below
+        approve(purchaseInvoiceWithLines(1));
+    }
+
+    @Test
+    void approvingAPurchaseInvoiceCostsTheSameStatementsForFewOrManyLines() {
+        long fewLines = purchaseInvoiceWithLines(3);
+        long manyLines = purchaseInvoiceWithLines(40);
+
+        int few = SqlCounter.count(() -> approve(fewLines));
+        int many = SqlCounter.count(() -> approve(manyLines));
+
+        //the 40 lots may need one more block from stock_details_seq than the 3
+        assertThat(many).isBetween(few, few + 1);
+    }
+
+    @Test
+    void approvalAddsEveryLineToStockOnce() {
+        long tv = testData.productId("TV");
+        long qtyBefore = testData.productQty(tv);
+        long lotsBefore = lots(tv);
+        long invoiceId = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+        testData.line(invoiceId, tv, 2, "10");
+        testData.line(invoiceId, tv, 5, "10");
+
+        approve(invoiceId);
+        approve(invoiceId);
+
+        assertThat(testData.productQty(tv)).isEqualTo(qtyBefore + 7);
+        assertThat(lots(tv)).isEqualTo(lotsBefore + 2);
+    }
+
+    @Test
+    void enablingAnInvoiceUpdatesAllLinesWithOneStatement() {
+        long few = purchaseInvoiceWithLines(3);
+        long many = purchaseInvoiceWithLines(40);
+
+        int fewStatements = SqlCounter.count(() -> invoiceService.enableInvoice(few));
+        int manyStatements = SqlCounter.count(() -> invoiceService.enableInvoice(many));
+
+        assertThat(manyStatements).isEqualTo(fewStatements);
+    }
+
+    @Test
+    void disablingTheLinesOfAnInvoiceIsOneStatement() {
+        long few = purchaseInvoiceWithLines(3);
+        long many = purchaseInvoiceWithLines(40);
+
+        int fewStatements = SqlCounter.count(() -> invoiceProductService.disableInvoiceProductsByInvoiceId(few));
+        int manyStatements = SqlCounter.count(() -> invoiceProductService.disableInvoiceProductsByInvoiceId(many));
+
+        assertThat(manyStatements).isEqualTo(fewStatements).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM invoice_product WHERE invoice_id = ? AND enabled", Long.class, many))
+                .isZero();
+    }
+
+    private long purchaseInvoiceWithLines(int lines) {
+        long invoiceId = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+        for (int i = 0; i < lines; i++) {
+            testData.line(invoiceId, testData.productId(PRODUCTS.get(i % PRODUCTS.size())), 1, "10");
+        }
+        return invoiceId;
+    }
+
+    private long lots(long productId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM stock_details WHERE product_id = ?", Long.class, productId);
+    }
+
+    //what PurchaseInvoiceController does for the approve button
+    private void approve(long invoiceId) {
+        invoiceService.approvePurchaseInvoice(invoiceId);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.service.PdfExportService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Invoice PDFs through the file cache: an approved invoice is rendered once per version, and how many downloads per
+//second a cold cache (every request renders) and a warm one (every request finds the file) answer.
+class PdfExportServiceImplTest extends PostgresIntegrationTest {
+
+    private static final int COLD_RUNS = 20;
+    private static final int WARM_RUNS = 500;
+
+    @Autowired
+    private PdfExportService pdfExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData testData;
+    private long invoice;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+        invoice = testData.invoice(InvoiceType.SALE, InvoiceStatus.APPROVED);
+        testData.lines(invoice, testData.product(), 20, 1, "30");
+    }
+
+    @Test
+    void approvedInvoiceIsRenderedOncePerVersion() throws IOException {
+        Path first = pdfExportService.findApprovedInvoicePdf(invoice);
+        Path again = pdfExportService.findApprovedInvoicePdf(invoice);
+        edit();
+        Path edited = pdfExportService.findApprovedInvoicePdf(invoice);
+
+        assertThat(again).isEqualTo(first);
+        assertThat(Files.size(first)).isPositive();
+        assertThat(edited).isNotEqualTo(first).exists();
+        //the old version stays for the grace period, for downloads that were handed its path
+        assertThat(first).exists();
+    }
+
+    @Test
+    void pendingInvoiceHasNoCachedPdf() throws IOException {
+        long pending = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+
+        assertThat(pdfExportService.findApprovedInvoicePdf(pending)).isNull();
+    }
+
+    @Test
+    void warmCacheAnswersManyMoreDownloadsThanRendering() throws IOException {
+        //warm-up: template parsing, fonts, JIT
+        pdfExportService.findApprovedInvoicePdf(invoice);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < COLD_RUNS; i++) {
+            edit();
+            pdfExportService.findApprovedInvoicePdf(invoice);
+        }
+        double cold = perSecond(COLD_RUNS, System.nanoTime() - started);
+
+        started = System.nanoTime();
+        for (int i = 0; i < WARM_RUNS; i++) {
+            pdfExportService.findApprovedInvoicePdf(invoice);
+        }
+        double warm = perSecond(WARM_RUNS, System.nanoTime() - started);
+        System.out.printf("invoice pdf: cold %.1f/s, warm %.1f/s%n", cold, warm);
+
+        assertThat(warm).isGreaterThan(cold);
+    }
+
+    //a new updated_time is a new version of the PDF
+    private void edit() {
+        jdbcTemplate.update("UPDATE invoice SET updated_time = updated_time + interval '1 second' WHERE id = ?", invoice);
+    }
+
+    private static double perSecond(int runs, long nanos) {
+        return runs * 1000.0 / Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+}
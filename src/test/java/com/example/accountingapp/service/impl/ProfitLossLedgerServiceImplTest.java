@@ -0,0 +1,91 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.service.ProfitLossLedgerService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Rebuilds of the ledger racing approvals that write their deltas into it; no delta may be lost or counted twice.
+class ProfitLossLedgerServiceImplTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 4;
+    private static final int PURCHASES = 200;
+
+    @Autowired
+    private ProfitLossLedgerService profitLossLedgerService;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rebuildDuringApprovalsLeavesTheLedgerConsistent() throws Exception {
+        TestData testData = new TestData(jdbcTemplate);
+        //rows other tests wrote around InvoiceService are summed in first
+        profitLossLedgerService.rebuild();
+        long product = testData.product();
+        List<Long> purchases = new ArrayList<>();
+        for (int i = 0; i < PURCHASES; i++) {
+            long invoiceId = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+            testData.line(invoiceId, product, 2, "10");
+            purchases.add(invoiceId);
+        }
+
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger rebuilds = new AtomicInteger();
+        try {
+            List<Future<?>> approvers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                approvers.add(threads.submit(() -> {
+                    start.await();
+                    int each;
+                    while ((each = next.getAndIncrement()) < purchases.size()) {
+                        invoiceService.approvePurchaseInvoice(purchases.get(each));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> rebuilder = threads.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    profitLossLedgerService.rebuild();
+                    rebuilds.incrementAndGet();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> each : approvers) {
+                each.get(120, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            rebuilder.get(30, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertThat(rebuilds.get()).isPositive();
+        assertThat(profitLossLedgerService.checkConsistency()).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.export.ExportFormat;
+import com.example.accountingapp.service.ReportExportService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//The stock export of a hundred times more lines must not need more heap. Live heap is sampled after a GC while the
+//export is still writing, i.e. while the cursor is open: rows collected into a list would be reachable at that point.
+//Only CSV is measured here, the XLSX writer hands the rows to POI's streaming workbook, which writes on close.
+class ReportExportServiceImplTest extends PostgresIntegrationTest {
+
+    private static final int SMALL = 2_000;
+    private static final int LARGE = 200_000;
+    //JIT, buffers and GC noise; a materialized 200k-row result is several times this
+    private static final long HEAP_MARGIN = 16L * 1024 * 1024;
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> invoiceIds = new ArrayList<>();
+
+    @AfterEach
+    void removeLines() {
+        TestData testData = new TestData(jdbcTemplate);
+        invoiceIds.forEach(testData::deleteInvoice);
+    }
+
+    @Test
+    void stockExportHeapDoesNotGrowWithTheRowCount() throws IOException {
+        TestData testData = new TestData(jdbcTemplate);
+        long tv = testData.productId("TV");
+        long small = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.APPROVED);
+        invoiceIds.add(small);
+        testData.lines(small, tv, SMALL, 1, "250");
+        //warm-up: resolves the tenant and compiles the writer before anything is measured
+        reportExportService.exportStock(ExportFormat.CSV, OutputStream.nullOutputStream());
+        long smallGrowth = exportGrowth();
+
+        long large = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.APPROVED);
+        invoiceIds.add(large);
+        testData.lines(large, tv, LARGE - SMALL, 1, "250");
+        HeapSampler sampler = new HeapSampler();
+        reportExportService.exportStock(ExportFormat.CSV, sampler);
+        long largeGrowth = sampler.peak - sampler.baseline;
+
+        assertThat(sampler.bytes).isGreaterThan(LARGE * 20L);
+        assertThat(largeGrowth).isLessThan(smallGrowth + HEAP_MARGIN);
+    }
+
+    private long exportGrowth() throws IOException {
+        HeapSampler sampler = new HeapSampler();
+        reportExportService.exportStock(ExportFormat.CSV, sampler);
+        return sampler.peak - sampler.baseline;
+    }
+
+    //discards the export and samples the live heap every SAMPLE_BYTES written
+    private static class HeapSampler extends OutputStream {
+
+        private static final long SAMPLE_BYTES = 512 * 1024;
+        private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+        private final long baseline = liveHeap();
+        private long peak = baseline;
+        private long bytes;
+        private long nextSample = SAMPLE_BYTES;
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int len) {
+            bytes += len;
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_BYTES;
+                peak = Math.max(peak, liveHeap());
+            }
+        }
+
+        //the small export writes less than one sample, so the end of the export counts as one too
+        @Override
+        public void flush() {
+            peak = Math.max(peak, liveHeap());
+        }
+
+        private static long liveHeap() {
+            System.gc();
+            return MEMORY.getHeapMemoryUsage().getUsed();
+        }
+    }
+}
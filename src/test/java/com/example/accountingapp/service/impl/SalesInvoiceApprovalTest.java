@@ -0,0 +1,139 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.SqlCounter;
+import com.example.accountingapp.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Sales approval against real lots: FIFO profit, the row locks of concurrent approvals, and how statements and
+//latency grow with the number of lines.
+class SalesInvoiceApprovalTest extends PostgresIntegrationTest {
+
+    //spring.jpa.properties.hibernate.jdbc.batch_size: each full batch is one more prepared statement
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final int PRODUCTS = 7;
+    private static final int RUNS = 3;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestData testData;
+
+    @BeforeEach
+    void setUp() {
+        testData = new TestData(jdbcTemplate);
+    }
+
+    @Test
+    void profitIsRevenueLessTheOldestLotsNetOfTax() {
+        long product = testData.product();
+        purchase(product, 3, "10");
+        purchase(product, 2, "20");
+        long sale = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+        long line = testData.line(sale, product, 4, "30");
+
+        assertThat(invoiceService.approveSalesInvoice(testData.invoiceNumber(sale))).isTrue();
+
+        //120 revenue, 3 units at 10 and 1 at 20; the 10% purchase tax is in neither side
+        assertThat(jdbcTemplate.queryForObject("SELECT profit FROM invoice_product WHERE id = ?", BigDecimal.class, line))
+                .isEqualByComparingTo("70");
+        assertThat(jdbcTemplate.queryForList("SELECT remaining_quantity FROM stock_details WHERE product_id = ? ORDER BY id", Long.class, product))
+                .containsExactly(0L, 1L);
+        assertThat(testData.productQty(product)).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentApprovalsOfOneSaleApplyItOnce() throws Exception {
+        long product = testData.product();
+        purchase(product, 10, "10");
+        long sale = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+        testData.line(sale, product, 4, "30");
+        String number = testData.invoiceNumber(sale);
+
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> approvals = new ArrayList<>();
+        try {
+            for (int i = 0; i < 4; i++) {
+                approvals.add(threads.submit(() -> {
+                    start.await();
+                    return invoiceService.approveSalesInvoice(number);
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> each : approvals) {
+                assertThat(each.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertThat(testData.productQty(product)).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForObject("SELECT remaining_quantity FROM stock_details WHERE product_id = ?", Long.class, product))
+                .isEqualTo(6);
+    }
+
+    @Test
+    void approvalStatementsGrowByBatchesAndNotByLines() {
+        long[] products = new long[PRODUCTS];
+        for (int p = 0; p < PRODUCTS; p++) {
+            products[p] = testData.product();
+            purchase(products[p], 10_000, "10");
+        }
+        //warm-up: tenant, Hibernate query plans, JIT
+        approveMeasured(products, 10);
+
+        long[] small = approveMeasured(products, 100);
+        long[] large = approveMeasured(products, 500);
+        System.out.printf("sales approval: 100 lines %d statements %d ms, 500 lines %d statements %d ms%n",
+                small[0], small[1], large[0], large[1]);
+
+        //one more statement per JDBC batch of changed lines; nothing per line
+        assertThat(large[0] - small[0]).isLessThanOrEqualTo((500 - 100) / JDBC_BATCH_SIZE + 1);
+    }
+
+    //statements of the last run and the median latency of RUNS approvals of an invoice with this many lines
+    private long[] approveMeasured(long[] products, int lines) {
+        long[] millis = new long[RUNS];
+        int statements = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long sale = testData.invoice(InvoiceType.SALE, InvoiceStatus.PENDING);
+            for (int i = 0; i < lines; i++) {
+                testData.line(sale, products[i % products.length], 1, "30");
+            }
+            String number = testData.invoiceNumber(sale);
+            long started = System.nanoTime();
+            statements = SqlCounter.count(() -> assertThat(invoiceService.approveSalesInvoice(number)).isTrue());
+            millis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        }
+        Arrays.sort(millis);
+        return new long[]{statements, millis[RUNS / 2]};
+    }
+
+    private void purchase(long product, int qty, String price) {
+        long invoiceId = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+        testData.line(invoiceId, product, qty, price);
+        invoiceService.approvePurchaseInvoice(invoiceId);
+    }
+}
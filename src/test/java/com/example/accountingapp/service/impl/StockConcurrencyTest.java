@@ -0,0 +1,146 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import com.example.accountingapp.repository.InvoiceProductRepository;
+import com.example.accountingapp.repository.ProductRepository;
+import com.example.accountingapp.service.InvoiceService;
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.TestData;
+import com.example.accountingapp.version.ResourceVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//Hundreds of purchase approvals and sales decrements race on one product; its qty in the database must end up exact,
+//with the direct in-database deltas and with the striped accumulator.
+class StockConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 8;
+    private static final int PURCHASES = 400;
+    private static final int PURCHASED_QTY = 5;
+    private static final int SALES = 300;
+    private static final int SOLD_QTY = 3;
+
+    @Autowired
+    private InvoiceService invoiceService;
+
+    @Autowired
+    private StockCounter stockCounter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InvoiceProductRepository invoiceProductRepository;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentApprovalsAndSalesLeaveTheExactQty() throws Exception {
+        TestData testData = new TestData(jdbcTemplate);
+        long product = testData.product();
+        List<Long> purchases = purchaseInvoices(testData, product);
+
+        int sold = race(purchases,
+                invoiceId -> invoiceService.approvePurchaseInvoice(invoiceId),
+                () -> remove(stockCounter, product), null);
+
+        assertThat(testData.productQty(product)).isEqualTo((long) PURCHASES * PURCHASED_QTY - (long) sold * SOLD_QTY);
+    }
+
+    @Test
+    void stripedAccumulatorLosesNoDeltaUnderConcurrentFlushes() throws Exception {
+        StockCounter accumulating = new StockCounter(productRepository, invoiceProductRepository, jdbcTemplate,
+                transactionManager, resourceVersions, true);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        TestData testData = new TestData(jdbcTemplate);
+        long product = testData.product();
+        List<Long> purchases = purchaseInvoices(testData, product);
+
+        int sold = race(purchases,
+                invoiceId -> transaction.executeWithoutResult(status -> accumulating.addInvoice(invoiceId)),
+                () -> remove(accumulating, product), accumulating::flush);
+        accumulating.flush();
+
+        assertThat(testData.productQty(product)).isEqualTo((long) PURCHASES * PURCHASED_QTY - (long) sold * SOLD_QTY);
+    }
+
+    private List<Long> purchaseInvoices(TestData testData, long product) {
+        List<Long> invoiceIds = new ArrayList<>();
+        for (int i = 0; i < PURCHASES; i++) {
+            long invoiceId = testData.invoice(InvoiceType.PURCHASE, InvoiceStatus.PENDING);
+            testData.line(invoiceId, product, PURCHASED_QTY, "10");
+            invoiceIds.add(invoiceId);
+        }
+        return invoiceIds;
+    }
+
+    //a sale that finds too little stock changes nothing and is not counted
+    private boolean remove(StockCounter counter, long product) {
+        Boolean removed = new TransactionTemplate(transactionManager).execute(status -> counter.remove(product, SOLD_QTY));
+        return Boolean.TRUE.equals(removed);
+    }
+
+    //runs the purchases and SALES decrements spread over THREADS threads, plus a flusher while they run if given;
+    //returns the number of decrements that succeeded
+    private int race(List<Long> purchases, Consumer<Long> purchase, Callable<Boolean> sale, Runnable flusher) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger nextPurchase = new AtomicInteger();
+        AtomicInteger salesLeft = new AtomicInteger(SALES);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(threads.submit(() -> {
+                    start.await();
+                    int next;
+                    while ((next = nextPurchase.getAndIncrement()) < purchases.size()) {
+                        purchase.accept(purchases.get(next));
+                        if (salesLeft.getAndDecrement() > 0 && sale.call()) sold.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flushing = flusher == null ? null : threads.submit(() -> {
+                start.await();
+                while (running.get()) flusher.run();
+                return null;
+            });
+            start.countDown();
+            for (Future<?> each : workers) {
+                each.get(120, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            if (flushing != null) flushing.get(30, TimeUnit.SECONDS);
+        } finally {
+            threads.shutdownNow();
+        }
+        return sold.get();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.dto.projection.ProductQtyRow;
+import com.example.accountingapp.repository.InvoiceProductRepository;
+import com.example.accountingapp.repository.ProductRepository;
+import com.example.accountingapp.version.ResourceVersions;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StockCounterTest {
+
+    private static final int PRODUCTS = 3;
+    private static final int WRITERS = 4;
+    private static final int INVOICES_PER_WRITER = 5000;
+
+    private final Map<Long, Long> stock = new ConcurrentHashMap<>();
+
+    @Test
+    void concurrentFlushesWriteEveryIncrementExactlyOnce() throws Exception {
+        StockCounter stockCounter = accumulatingStockCounter();
+        ExecutorService threads = Executors.newFixedThreadPool(WRITERS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean adding = new AtomicBoolean(true);
+        try {
+            Future<?>[] writers = new Future<?>[WRITERS];
+            for (int w = 0; w < WRITERS; w++) {
+                writers[w] = threads.submit(() -> {
+                    start.await();
+                    for (long invoiceId = 0; invoiceId < INVOICES_PER_WRITER; invoiceId++) {
+                        stockCounter.addInvoice(invoiceId);
+                    }
+                    return null;
+                });
+            }
+            //the scheduled flush and the per-product flush of a decrement, racing each other and the writers
+            Future<?> scheduled = threads.submit(() -> {
+                start.await();
+                while (adding.get()) stockCounter.flush();
+                return null;
+            });
+            Future<?> decrements = threads.submit(() -> {
+                start.await();
+                long productId = 1;
+                while (adding.get()) {
+                    stockCounter.flush(productId);
+                    productId = productId % PRODUCTS + 1;
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> each : writers) each.get(1, TimeUnit.MINUTES);
+            adding.set(false);
+            scheduled.get(1, TimeUnit.MINUTES);
+            decrements.get(1, TimeUnit.MINUTES);
+        } finally {
+            threads.shutdownNow();
+        }
+        stockCounter.flush();
+
+        long expectedTotal = (long) WRITERS * INVOICES_PER_WRITER;
+        assertThat(stock.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(expectedTotal);
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            long invoicesOfProduct = (INVOICES_PER_WRITER + PRODUCTS - productId) / PRODUCTS;
+            assertThat(stock.get(productId)).isEqualTo(WRITERS * invoicesOfProduct);
+        }
+    }
+
+    @Test
+    void failedWriteKeepsTheDeltaForTheNextFlush() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenAnswer(invocation -> record(invocation.getArgument(1)));
+        StockCounter stockCounter = stockCounter(jdbcTemplate);
+        stockCounter.addInvoice(0L);
+
+        try {
+            stockCounter.flush();
+        } catch (IllegalStateException expected) {
+            //first write fails
+        }
+        assertThat(stock).isEmpty();
+        stockCounter.flush();
+        assertThat(stock).containsEntry(1L, 1L);
+    }
+
+    private StockCounter accumulatingStockCounter() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> record(invocation.getArgument(1)));
+        return stockCounter(jdbcTemplate);
+    }
+
+    //invoice n holds one unit of product n % PRODUCTS + 1; outside a transaction increments are pending right away
+    private StockCounter stockCounter(JdbcTemplate jdbcTemplate) {
+        InvoiceProductRepository invoiceProductRepository = mock(InvoiceProductRepository.class);
+        when(invoiceProductRepository.sumQtyByProductForInvoice(anyLong()))
+                .thenAnswer(invocation -> Collections.singletonList(row((Long) invocation.getArgument(0) % PRODUCTS + 1, 1L)));
+        return new StockCounter(mock(ProductRepository.class), invoiceProductRepository, jdbcTemplate, new NoOpTransactionManager(),
+                mock(ResourceVersions.class), true);
+    }
+
+    private int[] record(List<Object[]> batch) {
+        for (Object[] each : batch) {
+            stock.merge((Long) each[1], (Long) each[0], Long::sum);
+        }
+        return new int[batch.size()];
+    }
+
+    //runs the transaction synchronizations like a real transaction manager, without a database
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+
+    private static ProductQtyRow row(Long productId, Long qty) {
+        return new ProductQtyRow() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQty() {
+                return qty;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.accountingapp.service.impl;
+
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.StripeSignatures;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+
+import static com.example.accountingapp.support.StripeSignatures.WEBHOOK_SECRET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//Posts locally signed events to the webhook endpoint, the way Stripe delivers and redelivers them.
+class StripeEventServiceImplTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void redeliveredEventIsStoredAndHandledOnce() throws Exception {
+        String id = StripeSignatures.newEventId();
+        String payload = StripeSignatures.event(id, "customer.created");
+
+        deliver(payload, StripeSignatures.header(payload)).andExpect(status().isOk());
+        Map<String, Object> handled = awaitProcessed(id);
+        //Stripe signs every delivery again, with a later timestamp
+        Thread.sleep(1000);
+        deliver(payload, StripeSignatures.header(payload)).andExpect(status().isOk());
+        deliver(payload, StripeSignatures.header(payload)).andExpect(status().isOk());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM stripe_event WHERE event_id = ?", Integer.class, id)).isEqualTo(1);
+        assertThat(row(id)).containsEntry("status", "PROCESSED").containsEntry("attempts", 1)
+                .containsEntry("processed_time", handled.get("processed_time"));
+    }
+
+    @Test
+    void eventWithABadSignatureIsNotStored() throws Exception {
+        String id = StripeSignatures.newEventId();
+        String payload = StripeSignatures.event(id, "customer.created");
+        long now = System.currentTimeMillis() / 1000;
+
+        deliver(payload, StripeSignatures.header(payload, "whsec_other", now)).andExpect(status().isBadRequest());
+        deliver(payload, StripeSignatures.header(payload, WEBHOOK_SECRET, now - 3600)).andExpect(status().isBadRequest());
+        deliver(payload, StripeSignatures.header(payload.replace("customer.created", "customer.deleted"), WEBHOOK_SECRET, now))
+                .andExpect(status().isBadRequest());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM stripe_event WHERE event_id = ?", Integer.class, id)).isZero();
+    }
+
+    private ResultActions deliver(String payload, String signature) throws Exception {
+        return mockMvc.perform(post("/stripe/events").contentType(MediaType.APPLICATION_JSON)
+                .header("Stripe-Signature", signature).content(payload));
+    }
+
+    //the event is handled on the inbox workers, after the endpoint has answered
+    private Map<String, Object> awaitProcessed(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        Map<String, Object> row = row(id);
+        while (!"PROCESSED".equals(row.get("status")) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            row = row(id);
+        }
+        assertThat(row).containsEntry("status", "PROCESSED");
+        return row;
+    }
+
+    private Map<String, Object> row(String id) {
+        return jdbcTemplate.queryForMap("SELECT status, attempts, processed_time FROM stripe_event WHERE event_id = ?", id);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.accountingapp.support;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+//Base class of the tests that need the real schema. One PostgreSQL container serves the whole run and Flyway migrates
+//it when the first application context starts; every subclass shares that context, so whatever one of them needs from
+//it (MockMvc, the webhook secret) is configured here. Skipped where Docker is not available.
+@SpringBootTest(properties = "stripe.webhook.secret=" + StripeSignatures.WEBHOOK_SECRET)
+@AutoConfigureMockMvc
+@Import(SqlCounter.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    //started once and left running, Testcontainers removes it when the JVM exits
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:14-alpine");
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+}
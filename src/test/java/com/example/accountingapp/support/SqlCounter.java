@@ -0,0 +1,65 @@
+package com.example.accountingapp.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Wraps the application's DataSource to count the JDBC statements the calling thread prepares inside count(...).
+//A JDBC batch is one statement, which is what the batching tests compare. Statements of other threads
+//(the scheduler, executor pools) are not counted, so background jobs cannot make a test flaky.
+public class SqlCounter implements BeanPostProcessor {
+
+    private static final ThreadLocal<AtomicInteger> COUNTING = new ThreadLocal<>();
+
+    public static int count(Runnable action) {
+        AtomicInteger statements = new AtomicInteger();
+        COUNTING.set(statements);
+        try {
+            action.run();
+        } finally {
+            COUNTING.remove();
+        }
+        return statements.get();
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        return new DelegatingDataSource((DataSource) bean) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return counting(super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return counting(super.getConnection(username, password));
+            }
+        };
+    }
+
+    private static Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(SqlCounter.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.equals("prepareStatement") || name.equals("createStatement") || name.equals("prepareCall")) {
+                AtomicInteger statements = COUNTING.get();
+                if (statements != null) {
+                    statements.incrementAndGet();
+                }
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+}
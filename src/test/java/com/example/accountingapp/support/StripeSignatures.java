@@ -0,0 +1,50 @@
+package com.example.accountingapp.support;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.UUID;
+
+//Builds webhook payloads and Stripe-Signature headers the way Stripe does: v1 is the hex HMAC-SHA256 of
+//"<timestamp>.<payload>" keyed with the endpoint secret. Computed here rather than with the library under test.
+public class StripeSignatures {
+
+    public static final String WEBHOOK_SECRET = "whsec_test_secret";
+
+    private StripeSignatures() {
+    }
+
+    public static String header(String payload, String secret, long epochSeconds) {
+        return "t=" + epochSeconds + ",v1=" + hmacSha256Hex(secret, epochSeconds + "." + payload);
+    }
+
+    public static String header(String payload) {
+        return header(payload, WEBHOOK_SECRET, System.currentTimeMillis() / 1000);
+    }
+
+    //an event no handler acts on, so storing and processing it touches nothing but the inbox
+    public static String event(String id, String type) {
+        return "{\"id\":\"" + id + "\",\"object\":\"event\",\"api_version\":\"2020-08-27\"," +
+                "\"created\":" + System.currentTimeMillis() / 1000 + ",\"livemode\":false,\"type\":\"" + type + "\"," +
+                "\"data\":{\"object\":{\"id\":\"cus_test\",\"object\":\"customer\"}}}";
+    }
+
+    public static String newEventId() {
+        return "evt_test_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private static String hmacSha256Hex(String secret, String message) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : mac.doFinal(message.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.accountingapp.support;
+
+import com.example.accountingapp.enums.InvoiceStatus;
+import com.example.accountingapp.enums.InvoiceType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+//Inserts the rows a test needs next to the seed data of V2__seed_data.sql. They belong to Company2, the tenant
+//configured in tenant.user-email; every invoice gets a number of its own, so tests never see each other's invoices.
+public class TestData {
+
+    public static final long COMPANY_ID = 2;
+    //Vendor1 and Client1 of Company2
+    public static final long VENDOR_ID = 1;
+    public static final long CLIENT_ID = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TestData(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long invoice(InvoiceType invoiceType, InvoiceStatus invoiceStatus) {
+        String number = (invoiceType == InvoiceType.SALE ? "T-S-" : "T-P-") + UUID.randomUUID();
+        return jdbcTemplate.queryForObject("INSERT INTO invoice (created_by, created_time, updated_by, updated_time, is_deleted, " +
+                        "invoice_number, invoice_status, invoice_type, invoice_date, sptable_id, company_id, enabled) " +
+                        "VALUES (1, now(), 1, now(), FALSE, ?, ?, ?, CURRENT_DATE, ?, ?, TRUE) RETURNING id", Long.class,
+                number, invoiceStatus.name(), invoiceType.name(), invoiceType == InvoiceType.SALE ? CLIENT_ID : VENDOR_ID, COMPANY_ID);
+    }
+
+    public long line(long invoiceId, long productId, int qty, String price) {
+        return jdbcTemplate.queryForObject("INSERT INTO invoice_product (created_by, created_time, updated_by, updated_time, is_deleted, " +
+                        "name, qty, price, tax, profit, enabled, product_id, invoice_id) " +
+                        "SELECT 1, now(), 1, now(), FALSE, p.name, ?, ?, 10, 0, TRUE, p.id, ? FROM product p WHERE p.id = ? RETURNING id", Long.class,
+                qty, new BigDecimal(price), invoiceId, productId);
+    }
+
+    //count identical lines in one statement, for tests that need volume rather than variety
+    public void lines(long invoiceId, long productId, int count, int qty, String price) {
+        jdbcTemplate.update("INSERT INTO invoice_product (created_by, created_time, updated_by, updated_time, is_deleted, " +
+                        "name, qty, price, tax, profit, enabled, product_id, invoice_id) " +
+                        "SELECT 1, now(), 1, now(), FALSE, p.name, ?, ?, 10, 0, TRUE, p.id, ? FROM product p, generate_series(1, ?) WHERE p.id = ?",
+                qty, new BigDecimal(price), invoiceId, count, productId);
+    }
+
+    public void deleteInvoice(long invoiceId) {
+        jdbcTemplate.update("DELETE FROM invoice_product WHERE invoice_id = ?", invoiceId);
+        jdbcTemplate.update("DELETE FROM invoice WHERE id = ?", invoiceId);
+    }
+
+    public String invoiceNumber(long invoiceId) {
+        return jdbcTemplate.queryForObject("SELECT invoice_number FROM invoice WHERE id = ?", String.class, invoiceId);
+    }
+
+    //an active product of its own with no stock and no lots, for tests that check exact quantities or costs
+    public long product() {
+        return jdbcTemplate.queryForObject("INSERT INTO product (created_by, created_time, is_deleted, updated_by, updated_time, " +
+                        "description, enabled, low_limit_alert, name, new_column, product_status, qty, tax, unit, category_id, company_id) " +
+                        "VALUES (1, now(), FALSE, 1, now(), 'Test', TRUE, 0, ?, 1, 'ACTIVE', 0, 10, 'PCS', 1, ?) RETURNING id", Long.class,
+                "T-" + UUID.randomUUID(), COMPANY_ID);
+    }
+
+    public long productId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM product WHERE name = ? AND company_id = ?", Long.class, name, COMPANY_ID);
+    }
+
+    public long productQty(long productId) {
+        return jdbcTemplate.queryForObject("SELECT qty FROM product WHERE id = ?", Long.class, productId);
+    }
+}
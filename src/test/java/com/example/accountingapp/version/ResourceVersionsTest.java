@@ -0,0 +1,70 @@
+package com.example.accountingapp.version;
+
+import com.example.accountingapp.support.PostgresIntegrationTest;
+import com.example.accountingapp.support.SqlCounter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+//A page the client already has must be answered before any query runs. MockMvc serves the request on the test
+//thread, so SqlCounter sees every statement the request would send.
+class ResourceVersionsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/invoice/salesInvoiceList", "/invoice/purchaseInvoiceList", "/product/list", "/report/stock", "/report/profit"})
+    void unchangedPageIsNotModifiedWithoutSql(String page) throws Exception {
+        //the first request renders the page and resolves the tenant, which is remembered for the next ones
+        MvcResult rendered = mockMvc.perform(get(page)).andExpect(status().isOk()).andReturn();
+        String etag = rendered.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("W/\"");
+
+        int statements = SqlCounter.count(() -> {
+            try {
+                mockMvc.perform(get(page).header(HttpHeaders.IF_NONE_MATCH, etag))
+                        .andExpect(status().isNotModified());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    void writeRendersThePageAgain() throws Exception {
+        String etag = mockMvc.perform(get("/invoice/salesInvoiceList")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        resourceVersions.committedForAllTenants(VersionedResource.INVOICES);
+
+        String next = mockMvc.perform(get("/invoice/salesInvoiceList").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(next).isNotEqualTo(etag);
+    }
+
+    @Test
+    void writeOfAnotherTenantKeepsThePage() throws Exception {
+        String etag = mockMvc.perform(get("/invoice/salesInvoiceList")).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Company3's invoices, outside a transaction: bumped at once
+        resourceVersions.changed(3L, VersionedResource.INVOICES);
+
+        mockMvc.perform(get("/invoice/salesInvoiceList").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+}